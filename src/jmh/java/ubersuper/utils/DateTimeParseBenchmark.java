@@ -0,0 +1,41 @@
+package ubersuper.utils;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the single-pass {@link Parser#parseDateTime(String)} with the format cascade it replaced.
+ * <p>
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateTimeParseBenchmark {
+    @Param({"2019-12-02", "2019-12-02 18:00", "2019-12-02T18:00", "2/12/2019 1800", "2-12-2019"})
+    public String input;
+
+    @Benchmark
+    public LocalDateTime singlePass() {
+        return Parser.parseDateTime(input);
+    }
+
+    @Benchmark
+    public LocalDateTime cascade() {
+        return Parser.parseDateTimeCascade(input);
+    }
+}
@@ -0,0 +1,51 @@
+package ubersuper.utils.command;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link CommandTable#dispatch(CharSequence)} with the previous
+ * strip/split/toLowerCase/values() lookup.
+ * <p>
+ * Run with {@code ./gradlew jmh}; {@code gc.alloc.rate.norm} should read 0 B/op for {@code table}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandDispatchBenchmark {
+    @Param({"listtask", "  Mark 3", "deadline return book /by 2019-12-02 18:00", "listall"})
+    public String input;
+
+    @Benchmark
+    public int table() {
+        return CommandTable.dispatch(input);
+    }
+
+    @Benchmark
+    public CommandType legacy() {
+        if (input == null || input.isBlank()) {
+            return CommandType.UNKNOWN;
+        }
+        String[] parts = input.strip().split("\\s+", 2);
+        String head = parts[0].toLowerCase();
+        for (CommandType c : CommandType.values()) {
+            if (head.equals(c.getKeyword())) {
+                return c;
+            }
+        }
+        return CommandType.UNKNOWN;
+    }
+}
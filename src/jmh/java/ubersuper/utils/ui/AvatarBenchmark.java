@@ -0,0 +1,60 @@
+package ubersuper.utils.ui;
+
+import java.util.concurrent.TimeUnit;
+
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures decoding both avatars at start-up: at full resolution, as {@code MainWindow} used to,
+ * against {@link Avatars}' decoding at the displayed size. The {@code gc} profiler's
+ * {@code gc.alloc.rate.norm} shows the bytes each way allocates, most of which is the pixel data
+ * that stays on the heap for the whole session.
+ * <p>
+ * Run with {@code ./gradlew jmh}; like {@link DialogBoxBenchmark}, this needs a display to start
+ * the JavaFX toolkit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvatarBenchmark {
+    @Setup
+    public void startToolkit() {
+        try {
+            Platform.startup(() -> { });
+        } catch (IllegalStateException alreadyStarted) {
+            // started by an earlier trial in this fork
+        }
+    }
+
+    @Benchmark
+    public Image[] fullSize() {
+        return new Image[]{
+            new Image(AvatarBenchmark.class.getResourceAsStream("/images/User.png")),
+            new Image(AvatarBenchmark.class.getResourceAsStream("/images/Uber.png"))
+        };
+    }
+
+    @Benchmark
+    public Image[] displaySize() {
+        return new Image[]{
+            new Image(AvatarBenchmark.class.getResourceAsStream("/images/User.png"), Avatars.SIZE, Avatars.SIZE,
+                    true, true),
+            new Image(AvatarBenchmark.class.getResourceAsStream("/images/Uber.png"), Avatars.SIZE, Avatars.SIZE,
+                    true, true)
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package ubersuper.utils.ui;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.control.Label;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time to create one message bubble: {@link DialogBox} as built in code, against the
+ * previous per-message {@code FXMLLoader} load of {@code LegacyDialogBox.fxml} (a copy of the old
+ * {@code DialogBox.fxml}) with a new formatter for the timestamp.
+ * <p>
+ * Run with {@code ./gradlew jmh}. Starting the JavaFX toolkit needs a display (or Monocle when
+ * headless); it is left running until the fork exits. Nodes are only created, never shown, so the
+ * benchmark thread may build them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DialogBoxBenchmark {
+    private static final String TEXT = "Got it. I've added this task:\n  [T][ ] read book\nNow you have 3 tasks.";
+
+    private Image avatar;
+
+    @Setup
+    public void startToolkit() {
+        try {
+            Platform.startup(() -> { });
+        } catch (IllegalStateException alreadyStarted) {
+            // started by an earlier trial in this fork
+        }
+        avatar = Avatars.uberSuper();
+    }
+
+    @Benchmark
+    public HBox built() {
+        return DialogBox.getUberDialog(TEXT, avatar);
+    }
+
+    @Benchmark
+    public HBox fxmlPerMessage() throws IOException {
+        FXMLLoader loader = new FXMLLoader(DialogBoxBenchmark.class.getResource("/view/LegacyDialogBox.fxml"));
+        HBox box = new HBox();
+        loader.setRoot(box);
+        loader.load();
+        Map<String, Object> ids = loader.getNamespace();
+        ((Label) ids.get("dialog")).setText(TEXT);
+        ((Label) ids.get("timestamp")).setText(DateTimeFormatter.ofPattern("HH:mm").format(LocalDateTime.now()));
+        ((ImageView) ids.get("displayPicture")).setImage(avatar);
+        return box;
+    }
+}
@@ -2,39 +2,231 @@ package ubersuper;
 
 import ubersuper.clients.ClientList;
 import ubersuper.exceptions.UberExceptions;
+import ubersuper.reminders.ReminderScheduler;
+import ubersuper.reminders.ReminderSink;
 import ubersuper.tasks.TaskList;
 import ubersuper.utils.LoadedResult;
+import ubersuper.utils.response.Response;
+import ubersuper.utils.response.ResponseKind;
+import ubersuper.utils.response.TextRenderer;
 import ubersuper.utils.storage.ClientStorage;
+import ubersuper.utils.storage.DataWatcher;
 import ubersuper.utils.storage.TaskStorage;
 import ubersuper.utils.ui.Ui;
 
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 /**
  * Entry point of the UberSuper application.
  * <p>
- * Starts up by loading tasks from disk, greeting the user, and entering the
+ * Starts up by loading tasks from disk ({@link #load()}), greeting the user, and entering the
  */
 
 public class UberSuper {
     private final Scanner sc = new Scanner(System.in);
-    private final TaskStorage taskStorage = new TaskStorage();
-    private final ClientStorage clientStorage = new ClientStorage();
-    private final LoadedResult<TaskList> tasksResult = taskStorage.load();
-    private final LoadedResult<ClientList> clientsResult = clientStorage.load();
-    private final TaskList taskList = tasksResult.list();
-    private final ClientList clientList = clientsResult.list();
-    private final Ui ui = new Ui(taskList, clientList);
+    private final TaskStorage taskStorage;
+    private final ClientStorage clientStorage;
+    private final TextRenderer renderer = new TextRenderer();
+    private LoadedResult<TaskList> tasksResult;
+    private LoadedResult<ClientList> clientsResult;
+    private TaskList taskList;
+    private ClientList clientList;
+    private Ui ui;
+    private long loadMillis;
     private String commandType;
+    private DataWatcher dataWatcher;
+    private ReminderScheduler reminders;
 
+    /**
+     * Creates the application over the default data files.
+     */
+    public UberSuper() {
+        this(new TaskStorage(), new ClientStorage());
+    }
+
+    /**
+     * Creates the application over the given stores, e.g. files in a test directory.
+     *
+     * @param taskStorage   store of the task list
+     * @param clientStorage store of the client list
+     */
+    UberSuper(TaskStorage taskStorage, ClientStorage clientStorage) {
+        this.taskStorage = taskStorage;
+        this.clientStorage = clientStorage;
+    }
+
+    /**
+     * Loads the task and client files in parallel on background threads.
+     * <p>
+     * Nothing else may be called until the returned future completes; its dependent stages see the
+     * loaded lists. Call once.
+     *
+     * @return future completing with the greeting (see {@link #greet()}) once both lists are loaded
+     */
+    public CompletableFuture<String> load() {
+        long start = System.nanoTime();
+        CompletableFuture<LoadedResult<TaskList>> tasks = CompletableFuture.supplyAsync(taskStorage::load);
+        CompletableFuture<LoadedResult<ClientList>> clients = CompletableFuture.supplyAsync(clientStorage::load);
+        return tasks.thenCombine(clients, (t, c) -> {
+            tasksResult = t;
+            clientsResult = c;
+            taskList = t.list();
+            clientList = c.list();
+            taskList.setClientNames(clientList::storedName);
+            ui = new Ui(taskList, clientList);
+            loadMillis = (System.nanoTime() - start) / 1_000_000;
+            return greet();
+        });
+    }
+
+    /**
+     * Returns the greeting: a summary of what was loaded and how long it took.
+     *
+     * @return greeting text
+     */
     public String greet() {
-        return ui.greet(tasksResult, clientsResult);
+        return ui.greet(tasksResult, clientsResult, loadMillis);
     }
 
+    /**
+     * Runs one command and renders its reply as text. Call from one thread only (the reply buffer is reused).
+     *
+     * @param input user input line
+     * @return rendered reply
+     * @throws UberExceptions if the command fails
+     */
     public String getResponse(String input) throws UberExceptions {
+        return renderer.render(ui.echo(input));
+    }
+
+    /**
+     * Runs one command and returns its structured reply without rendering it, for front ends that
+     * render differently or not at all.
+     *
+     * @param input user input line
+     * @return structured reply
+     * @throws UberExceptions if the command fails
+     */
+    public Response respond(String input) throws UberExceptions {
         return ui.echo(input);
     }
 
+    /**
+     * Runs several commands, e.g. pasted lines, as one all-or-nothing batch.
+     * <p>
+     * The data files are written once, at the end, instead of after every command. If any command
+     * fails, whether it throws or replies with an {@link ResponseKind#ERROR error}, the changes of
+     * the earlier ones are undone and nothing is written. Call from the same thread as
+     * {@link #getResponse(String)}.
+     *
+     * @param commands the command lines, in order
+     * @return one summary of what the batch did
+     * @throws UberExceptions naming the failed line, after the batch was rolled back
+     */
+    public String runBatch(List<String> commands) throws UberExceptions {
+        Map<ResponseKind, Integer> kinds = new EnumMap<>(ResponseKind.class);
+        taskStorage.beginBatch(taskList);
+        clientStorage.beginBatch(clientList);
+        for (int i = 0; i < commands.size(); i++) {
+            String failure;
+            try {
+                Response reply = ui.echo(commands.get(i));
+                failure = reply.kind() == ResponseKind.ERROR ? reply.message().strip() : null;
+                kinds.merge(reply.kind(), 1, Integer::sum);
+            } catch (RuntimeException e) {
+                failure = e.getMessage();
+            }
+            if (failure != null) {
+                taskStorage.rollbackBatch(taskList);
+                clientStorage.rollbackBatch(clientList);
+                throw new UberExceptions(String.format("Line %d (%s) failed: %s\nNone of the %d commands were applied.",
+                        i + 1, commands.get(i).strip(), failure, commands.size()));
+            }
+        }
+        taskStorage.commitBatch();
+        clientStorage.commitBatch();
+        return batchSummary(commands.size(), kinds);
+    }
+
+    private String batchSummary(int count, Map<ResponseKind, Integer> kinds) {
+        StringBuilder sb = new StringBuilder(String.format("Ran %d commands in one go", count));
+        String separator = ": ";
+        for (Map.Entry<ResponseKind, Integer> e : kinds.entrySet()) {
+            sb.append(separator).append(e.getValue()).append(' ').append(label(e.getKey()));
+            separator = ", ";
+        }
+        return sb.append(String.format(".\nNow you have %d tasks and %d clients.\n",
+                taskList.size(), clientList.size())).toString();
+    }
+
+    private static String label(ResponseKind kind) {
+        switch (kind) {
+        case LIST:
+            return "listed";
+        case MATCHES:
+            return "searched";
+        default:
+            return kind.name().toLowerCase();
+        }
+    }
+
+    /**
+     * Starts applying external edits of the data files to the in-memory lists.
+     *
+     * @param applyOn executor to apply reloads on (the thread that also runs commands)
+     * @param notify  receives a short user-facing message after each applied reload
+     */
+    public void watchDataFiles(Executor applyOn, Consumer<String> notify) {
+        try {
+            dataWatcher = new DataWatcher(applyOn, (file, changed) ->
+                    notify.accept(String.format("(Reloaded %d changed record%s from %s)",
+                            changed, changed == 1 ? "" : "s", file)));
+            dataWatcher.watch(taskStorage, taskList);
+            dataWatcher.watch(clientStorage, clientList);
+        } catch (IOException ioe) {
+            System.out.print("Could not watch data files!");
+        }
+    }
+
+    /**
+     * Starts firing reminders for undone deadlines and upcoming events.
+     * They are kept in step with the task list through its change feed.
+     *
+     * @param sink receives reminders as they come due (on the reminder thread)
+     */
+    public void startReminders(ReminderSink sink) {
+        reminders = new ReminderScheduler(sink);
+        reminders.scheduleAll(taskList);
+        taskList.changes().subscribe(reminders);
+        reminders.start();
+    }
+
+    /**
+     * Returns the live task list, for views that follow it through {@link TaskList#changes()}.
+     * It is {@code null} until {@link #load()} completes.
+     *
+     * @return the task list commands operate on
+     */
+    public TaskList getTaskList() {
+        return taskList;
+    }
+
+    /**
+     * Returns the live client list. It is {@code null} until {@link #load()} completes.
+     *
+     * @return the client list commands operate on
+     */
+    public ClientList getClientList() {
+        return clientList;
+    }
+
     public String getCommandType() {
         return commandType;
     }
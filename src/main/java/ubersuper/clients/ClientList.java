@@ -1,93 +1,134 @@
 package ubersuper.clients;
 
 import ubersuper.exceptions.UberExceptions;
+import ubersuper.tasks.ClientPartitions;
+import ubersuper.utils.InternPool;
 import ubersuper.utils.Parser;
+import ubersuper.utils.change.PublishingList;
+import ubersuper.utils.command.CommandArgs;
+import ubersuper.utils.command.CommandTable;
+import ubersuper.utils.response.Response;
+import ubersuper.utils.response.ResponseKind;
 import ubersuper.utils.storage.ClientStorage;
 import ubersuper.utils.storage.DataStorage;
 import ubersuper.utils.ui.Ui;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.List;
 
 /**
  * Mutable list of {@link Client} items plus high-level operations used by the UI.
  * <p>
  * Responsibilities:
  * <ul>
- *   <li>Holds clients in memory (extends {@code ArrayList<Client>}).</li>
+ *   <li>Holds clients in memory (a {@link PublishingList}).</li>
  *   <li>Implements command behaviors: {@code list}, {@code todo}, {@code deadline},
  *       {@code event}, {@code delete}, {@code mark}, {@code unmark}, {@code onDate}.</li>
  *   <li>Stores changes to {@link DataStorage} after any state change.</li>
- *   <li>Prints user-facing messages (divider lines are handled by {@link Ui}).</li>
+ *   <li>Publishes every add/remove on {@link #changes()}, including those made by the bulk
+ *       {@code List} operations.</li>
+ *   <li>Replies with {@link Response}s, which are rendered to text (with the divider lines of
+ *       {@link Ui}) only when shown.</li>
  * </ul>
  */
-public class ClientList extends ArrayList<Client> {
+public class ClientList extends PublishingList<Client> {
     private final ClientStorage clientStorage;
+    private final InternPool strings = new InternPool();
 
     public ClientList(ClientStorage clientStorage) {
         this.clientStorage = clientStorage;
     }
 
+    /**
+     * Returns the pool that deduplicates strings read from storage into this list.
+     *
+     * @return this list's string pool
+     */
+    public InternPool strings() {
+        return strings;
+    }
+
+    /**
+     * Returns the name of the client called {@code name}, ignoring case and spacing, as it is
+     * stored; used to check the {@code /client} names given to tasks.
+     *
+     * @param name client name as typed
+     * @return the stored name, or {@code null} if no client has that name
+     */
+    public String storedName(String name) {
+        String key = ClientPartitions.key(name);
+        return read(() -> {
+            for (Client c : this) {
+                String stored = ClientPartitions.name(c.getName());
+                if (stored != null && ClientPartitions.key(stored).equals(key)) {
+                    return c.getName();
+                }
+            }
+            return null;
+        });
+    }
+
     /**
      * Stores the current list and prints the "added" confirmation for the provided client.
      *
      * @param c the Client that was just added
-     * @return String message
+     * @return confirmation naming the client and the new list size
      */
-    public String save(Client c) {
+    public Response save(Client c) {
         assert c != null : "Client passed to save() must not be null";
-        String message = "";
         clientStorage.save(this);
-        message += String.format("You now have %d clients in the list \n", this.size());
-        message = "Got it! I've added this client:\n" + c + "\n" + message + Ui.printLine();
-        return message;
+        return Response.confirm(ResponseKind.ADDED, "Got it! I've added this client:\n", c, this.size(), "clients",
+                false);
     }
 
     /**
-     * Returns a String of all clients with their 1-based indices.
+     * Lists all clients with their 1-based indices.
      */
-    public String list() {
-        String clients = IntStream.range(0, this.size())
-                .mapToObj(i -> (i + 1) + ". " + this.get(i))
-                .collect(Collectors.joining("\n"));
+    public Response list() {
+        return Response.list(ResponseKind.LIST, "Here are the clients in your list:\n", List.copyOf(this),
+                Response.Layout.NUMBERED, null, null, true);
+    }
 
-        return "Here are the clients in your list:\n"
-                + clients + "\n";
+    /**
+     * Same as {@link #delete(String, int)}, dispatching {@code input} first.
+     */
+    public Response delete(String input) {
+        return delete(input, CommandTable.dispatch(input));
     }
 
     /**
      * Deletes the i-th client (1-based index), saves the list, and prints a confirmation.
      *
-     * @param input full user input line, e.g., {@code "delete 1"}
-     * @throws UberExceptions if the index is missing or out of range
+     * @param input      full user input line, e.g., {@code "delete 1"}
+     * @param dispatched {@link CommandTable#dispatch(CharSequence)} of {@code input}
+     * @return confirmation naming the client and the new list size, or the problem with the input
+     * @throws UberExceptions if the index is missing
      */
-    public String delete(String input) {
-        String message = "";
-        String[] parts = input.split("\\s+", 2);
-        int i = Integer.parseInt(parts[1]);
+    public Response delete(String input, int dispatched) {
+        int i = CommandArgs.index(input, dispatched);
         try {
-            if (i > this.size()) {
+            if (i < 1 || i > this.size()) {
                 throw new UberExceptions("You're deleting something that doesn't exist");
             }
             Client t = this.get(i - 1);
             this.remove(i - 1);
             clientStorage.save(this);
-            message += String.format("You now have %d clients in the list \n", this.size());
-            message = Ui.printLine()
-                    + "Ok, I've removed this client from the list: \n"
-                    + t + "\n"
-                    + message
-                    + Ui.printLine();
+            return Response.confirm(ResponseKind.REMOVED, "Ok, I've removed this client from the list: \n", t,
+                    this.size(), "clients", true);
         } catch (UberExceptions e) {
-            return Ui.printLine() + e.getMessage() + "\n" + Ui.printLine();
+            return Response.error(e.getMessage());
         }
-        return message;
     }
 
 
+    /**
+     * Same as {@link #find(String, int)}, dispatching {@code input} first.
+     */
+    public Response find(String input) {
+        return find(input, CommandTable.dispatch(input));
+    }
+
     /**
      * Finds and prints clients whose name contain any of the given keywords (case-insensitive).
      * Usage: {@code find <keyword(s)>}
@@ -97,51 +138,66 @@ public class ClientList extends ArrayList<Client> {
      *   find Sean Ow
      * </pre>
      *
-     * @return String message
      * Matching is OR across keywords: a client is listed if its description contains at least one keyword.
+     *
+     * @param input      full user input line
+     * @param dispatched {@link CommandTable#dispatch(CharSequence)} of {@code input}
+     * @return the matching clients
      */
-    public String find(String input) {
-        String[] parts = input.split("\\s+", 2);
-        if (parts.length < 2 || parts[1].isBlank()) {
-            throw new UberExceptions("Use: find client <name>");
+    public Response find(String input, int dispatched) {
+        CommandArgs args = CommandArgs.parse(input, dispatched);
+        String query = args.body();
+        if (query.isEmpty()) {
+            throw new UberExceptions("Use: findclient <name>");
         }
 
         // Split the query into keywords and match, case-insensitive
-        String[] keywords = parts[1].toLowerCase().split("\\s+");
-
-        String matches = IntStream.range(0, this.size())
-                .mapToObj(i -> {
-                    Client c = this.get(i);
-                    assert c != null : "Client in ClientList should not be null";
-                    String name = c.getName().toLowerCase();
-                    boolean found = Arrays.stream(keywords)
-                            .filter(k -> !k.isBlank())
-                            .anyMatch(name::contains);
-                    return found ? (i + 1) + ". " + c : null;
-                })
-                .filter(Objects::nonNull)
-                .collect(Collectors.joining("\n"));
-
-        if (matches.isBlank()) {
-            matches = "(No matches.)";
+        String[] keywords = args.words();
+        for (int k = 0; k < keywords.length; k++) {
+            keywords[k] = keywords[k].toLowerCase();
         }
-        return String.format("Here are the clients %s in your list: \n", parts[1])
-                + matches;
+
+        List<Client> matches = new ArrayList<>();
+        int[] numbers = new int[8];
+        for (int i = 0; i < this.size(); i++) {
+            Client c = this.get(i);
+            assert c != null : "Client in ClientList should not be null";
+            String name = c.getName().toLowerCase();
+            boolean found = Arrays.stream(keywords).anyMatch(name::contains);
+            if (found) {
+                if (matches.size() == numbers.length) {
+                    numbers = Arrays.copyOf(numbers, numbers.length * 2);
+                }
+                numbers[matches.size()] = i + 1;
+                matches.add(c);
+            }
+        }
+        return Response.list(ResponseKind.MATCHES,
+                String.format("Here are the clients %s in your list: \n", String.join(" ", keywords)),
+                matches, Response.Layout.NUMBERED, numbers, "(No matches.)", false);
+    }
+
+    /**
+     * Same as {@link #add(String, int)}, dispatching {@code input} first.
+     */
+    public Response add(String input) {
+        return add(input, CommandTable.dispatch(input));
     }
 
     /**
      * Adds the client to the current list and saves the client in {@link ClientStorage}.
      *
-     * @param input client that was just added
-     * @return String message
+     * @param input      client that was just added
+     * @param dispatched {@link CommandTable#dispatch(CharSequence)} of {@code input}
+     * @return confirmation naming the client, or the problem with the input
      */
-    public String add(String input) {
+    public Response add(String input, int dispatched) {
         try {
-            Client c = Parser.parseAddClient(input);
+            Client c = Parser.parseAddClient(input, dispatched);
             this.add(c);
             return this.save(c);
         } catch (UberExceptions e) {
-            return Ui.printLine() + e.getMessage() + "\n" + Ui.printLine();
+            return Response.error(e.getMessage());
         }
     }
 }
@@ -0,0 +1,42 @@
+package ubersuper.reminders;
+
+import ubersuper.tasks.Event;
+import ubersuper.tasks.Task;
+
+import java.time.LocalDateTime;
+
+/**
+ * A reminder that has come due for a {@link Task}.
+ */
+public class Reminder {
+    private final Task task;
+    private final LocalDateTime time;
+
+    /**
+     * Creates a {@code Reminder}.
+     *
+     * @param task the task the reminder is for
+     * @param time the moment the reminder was scheduled for
+     */
+    public Reminder(Task task, LocalDateTime time) {
+        this.task = task;
+        this.time = time;
+    }
+
+    public Task task() {
+        return task;
+    }
+
+    public LocalDateTime time() {
+        return time;
+    }
+
+    /**
+     * Returns the user-facing reminder text, e.g. {@code "Reminder! This is due now:\n[D][] ..."}.
+     *
+     * @return String message
+     */
+    public String message() {
+        return "Reminder! This is " + (task instanceof Event ? "starting" : "due") + " now:\n" + task;
+    }
+}
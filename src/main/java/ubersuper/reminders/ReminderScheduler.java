@@ -0,0 +1,163 @@
+package ubersuper.reminders;
+
+import ubersuper.tasks.Task;
+import ubersuper.tasks.TaskList;
+import ubersuper.utils.change.ListChange;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires reminders for undone deadlines and upcoming event starts.
+ * <p>
+ * All pending reminders live in one {@link TimingWheel} with a one-second tick, driven by a
+ * single ticker thread, so scheduling and cancelling stay O(1) however many tasks are pending
+ * and there is no per-task {@code ScheduledFuture}. The scheduler subscribes to
+ * {@link TaskList#changes()}: adding or unmarking a task schedules it, marking or deleting it
+ * cancels it.
+ */
+public class ReminderScheduler implements Flow.Subscriber<ListChange<Task>>, AutoCloseable {
+    private static final long TICK_MILLIS = 1000;
+
+    private final ReminderSink sink;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final TimingWheel<Task> wheel = new TimingWheel<>(currentTick());
+    private final Map<Task, TimingWheel.Timer<Task>> timers = new IdentityHashMap<>();
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "reminder-ticker");
+        t.setDaemon(true);
+        return t;
+    });
+    private Flow.Subscription subscription;
+
+    /**
+     * Creates a scheduler delivering to {@code sink}. Call {@link #start()} to begin ticking.
+     *
+     * @param sink receives reminders as they come due
+     */
+    public ReminderScheduler(ReminderSink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Starts the ticker thread.
+     */
+    public void start() {
+        ticker.scheduleAtFixedRate(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Schedules reminders for every eligible task in {@code tasks}.
+     *
+     * @param tasks tasks to schedule
+     */
+    public synchronized void scheduleAll(List<Task> tasks) {
+        for (Task t : tasks) {
+            schedule(t);
+        }
+    }
+
+    /**
+     * (Re)schedules the reminder for {@code t}: cancels any pending one, then schedules the next
+     * reminder time after now, if the task is undone and has one.
+     *
+     * @param t task to schedule
+     */
+    public synchronized void schedule(Task t) {
+        cancel(t);
+        if (t.isDone()) {
+            return;
+        }
+        LocalDateTime at = t.reminderTimeAfter(LocalDateTime.now(zone));
+        if (at == null) {
+            return;
+        }
+        long tick = at.atZone(zone).toInstant().toEpochMilli() / TICK_MILLIS;
+        timers.put(t, wheel.schedule(tick, t));
+    }
+
+    /**
+     * Cancels the pending reminder for {@code t}, if any.
+     *
+     * @param t task whose reminder to cancel
+     */
+    public synchronized void cancel(Task t) {
+        TimingWheel.Timer<Task> timer = timers.remove(t);
+        if (timer != null) {
+            wheel.cancel(timer);
+        }
+    }
+
+    /**
+     * Returns the number of reminders currently pending.
+     */
+    public synchronized int pending() {
+        return wheel.size();
+    }
+
+    private void tick() {
+        List<Task> due = new ArrayList<>();
+        long tick;
+        synchronized (this) {
+            tick = currentTick();
+            wheel.advanceTo(tick, t -> {
+                timers.remove(t);
+                due.add(t);
+            });
+        }
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(tick * TICK_MILLIS), zone);
+        for (Task t : due) {
+            sink.remind(new Reminder(t, time));
+            schedule(t);
+        }
+    }
+
+    private static long currentTick() {
+        return System.currentTimeMillis() / TICK_MILLIS;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(ListChange<Task> change) {
+        switch (change.type()) {
+        // marking a recurring task completes one occurrence; schedule() moves on to the next
+        case ADDED, MARKED, UNMARKED -> schedule(change.item());
+        case REMOVED -> cancel(change.item());
+        default -> {
+        }
+        }
+        subscription.request(1);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        // the feed never fails; nothing to clean up
+    }
+
+    @Override
+    public void onComplete() {
+        // list closed; pending reminders still fire
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+        if (subscription != null) {
+            subscription.cancel();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package ubersuper.reminders;
+
+/**
+ * Receives reminders as they come due. Called on the reminder ticker thread, so UI sinks must
+ * hand the reminder over to their own thread.
+ */
+@FunctionalInterface
+public interface ReminderSink {
+
+    /**
+     * Delivers a due reminder.
+     *
+     * @param reminder the reminder that came due
+     */
+    void remind(Reminder reminder);
+}
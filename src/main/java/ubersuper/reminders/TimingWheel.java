@@ -0,0 +1,179 @@
+package ubersuper.reminders;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel holding timers with a whole-tick expiry.
+ * <p>
+ * There are {@value #LEVELS} levels of {@value #SLOTS} slots each; a slot on level {@code l}
+ * spans {@code 64^l} ticks, so the wheel covers {@code 64^4} ticks (about 194 days at one tick
+ * per second) before timers have to be re-placed. Each slot is a doubly-linked list, so
+ * {@link #schedule(long, Object)} and {@link #cancel(Timer)} are O(1) regardless of how many
+ * timers are pending. When the lower levels wrap around, the due slot of the next level is
+ * cascaded down.
+ * <p>
+ * Not thread-safe; callers synchronise externally.
+ *
+ * @param <T> payload carried by each timer
+ */
+public class TimingWheel<T> {
+    static final int LEVELS = 4;
+    static final int SLOT_BITS = 6;
+    static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+
+    /**
+     * A pending timer. Returned by {@link #schedule(long, Object)} so it can be cancelled.
+     *
+     * @param <T> payload type
+     */
+    public static final class Timer<T> {
+        private final long expiry;
+        private final T payload;
+        private Timer<T> prev;
+        private Timer<T> next;
+
+        private Timer(long expiry, T payload) {
+            this.expiry = expiry;
+            this.payload = payload;
+        }
+
+        public long expiry() {
+            return expiry;
+        }
+
+        public T payload() {
+            return payload;
+        }
+
+        boolean isPending() {
+            return next != null;
+        }
+    }
+
+    private final Timer<T>[][] slots;
+    private long now;
+    private int size;
+
+    /**
+     * Creates an empty wheel whose current tick is {@code startTick}.
+     *
+     * @param startTick tick the wheel starts at
+     */
+    @SuppressWarnings("unchecked") // no generic array creation; the array only ever holds Timer<T> heads
+    public TimingWheel(long startTick) {
+        this.now = startTick;
+        this.slots = (Timer<T>[][]) new Timer<?>[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                Timer<T> head = new Timer<>(Long.MIN_VALUE, null);
+                head.prev = head;
+                head.next = head;
+                slots[level][slot] = head;
+            }
+        }
+    }
+
+    /**
+     * Schedules {@code payload} to expire at {@code expiryTick}. An expiry at or before the
+     * current tick fires on the next {@link #advanceTo(long, Consumer)}.
+     *
+     * @param expiryTick tick at which the timer fires
+     * @param payload    value handed back on expiry
+     * @return handle for {@link #cancel(Timer)}
+     */
+    public Timer<T> schedule(long expiryTick, T payload) {
+        Timer<T> t = new Timer<>(Math.max(expiryTick, now + 1), payload);
+        place(t);
+        size++;
+        return t;
+    }
+
+    /**
+     * Cancels a pending timer. Does nothing if it has already fired or been cancelled.
+     *
+     * @param t handle returned by {@link #schedule(long, Object)}
+     */
+    public void cancel(Timer<T> t) {
+        if (t.isPending()) {
+            unlink(t);
+            size--;
+        }
+    }
+
+    /**
+     * Advances the wheel tick by tick up to {@code tick}, handing every expired payload to
+     * {@code onExpire} in expiry order.
+     *
+     * @param tick     tick to advance to
+     * @param onExpire receives each expired payload
+     */
+    public void advanceTo(long tick, Consumer<T> onExpire) {
+        while (now < tick) {
+            now++;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                int shift = level * SLOT_BITS;
+                if ((now & ((1L << shift) - 1)) == 0) {
+                    cascade(slots[level][(int) ((now >> shift) & MASK)]);
+                }
+            }
+            Timer<T> head = slots[0][(int) (now & MASK)];
+            while (head.next != head) {
+                Timer<T> t = head.next;
+                unlink(t);
+                size--;
+                onExpire.accept(t.payload);
+            }
+        }
+    }
+
+    public long now() {
+        return now;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void cascade(Timer<T> head) {
+        Timer<T> t = head.next;
+        head.next = head;
+        head.prev = head;
+        while (t != head) {
+            Timer<T> next = t.next;
+            place(t);
+            t = next;
+        }
+    }
+
+    /**
+     * Links {@code t} into the lowest level whose span still reaches its expiry. Timers beyond the
+     * top level go into its farthest slot and are re-placed when that slot cascades.
+     */
+    private void place(Timer<T> t) {
+        long expiry = Math.max(t.expiry, now);
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = level * SLOT_BITS;
+            if ((expiry >> shift) - (now >> shift) < SLOTS) {
+                link(slots[level][(int) ((expiry >> shift) & MASK)], t);
+                return;
+            }
+        }
+        int shift = (LEVELS - 1) * SLOT_BITS;
+        link(slots[LEVELS - 1][(int) (((now >> shift) + MASK) & MASK)], t);
+    }
+
+    private void link(Timer<T> head, Timer<T> t) {
+        t.prev = head.prev;
+        t.next = head;
+        head.prev.next = t;
+        head.prev = t;
+    }
+
+    private void unlink(Timer<T> t) {
+        t.prev.next = t.next;
+        t.next.prev = t.prev;
+        t.prev = null;
+        t.next = null;
+    }
+}
@@ -0,0 +1,93 @@
+package ubersuper.tasks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Index of tasks by the client they belong to.
+ * <p>
+ * Each client has its own partition, so a per-client query only touches that client's tasks.
+ * Tasks without a client are not indexed. The index is not locked on its own: {@link TaskList}
+ * only updates it from its mutation hooks, under its write lock, and queries it under its read
+ * lock, so queries for different clients run concurrently and never see a partition that is out
+ * of step with the list.
+ */
+public class ClientPartitions {
+    private final Map<String, List<Task>> partitions = new HashMap<>();
+
+    /**
+     * Normalises a client name as typed or stored: trimmed, with inner runs of whitespace
+     * collapsed to one space.
+     *
+     * @param client client name
+     * @return the normalised name, or {@code null} if {@code client} is {@code null} or blank
+     */
+    public static String name(String client) {
+        if (client == null || client.isBlank()) {
+            return null;
+        }
+        return client.strip().replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Normalises a client name into a partition key, so names differing only in case or spacing
+     * share a partition.
+     *
+     * @param client client name as typed or stored; must not be blank
+     * @return partition key
+     */
+    public static String key(String client) {
+        return name(client).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Adds {@code t} to its client's partition, if it has a client.
+     *
+     * @param t task that was added to the list
+     */
+    public void add(Task t) {
+        if (t.client() == null) {
+            return;
+        }
+        partitions.computeIfAbsent(key(t.client()), k -> new ArrayList<>()).add(t);
+    }
+
+    /**
+     * Removes {@code t} from its client's partition, if it has a client.
+     *
+     * @param t task that was removed from the list
+     */
+    public void remove(Task t) {
+        if (t.client() == null) {
+            return;
+        }
+        String key = key(t.client());
+        List<Task> partition = partitions.get(key);
+        if (partition == null) {
+            return;
+        }
+        for (int i = partition.size() - 1; i >= 0; i--) {
+            if (partition.get(i) == t) {
+                partition.remove(i);
+                break;
+            }
+        }
+        if (partition.isEmpty()) {
+            partitions.remove(key);
+        }
+    }
+
+    /**
+     * Returns one client's tasks, in the order they were added. The partition must not be
+     * modified or kept beyond the owning list's read lock.
+     *
+     * @param client client name
+     * @return the client's tasks; empty if the client has none
+     */
+    public List<Task> of(String client) {
+        return partitions.getOrDefault(key(client), List.of());
+    }
+}
@@ -26,6 +26,10 @@ public class Deadline extends Task {
         this.deadLine = deadLine;
     }
 
+    public LocalDateTime getDeadline() {
+        return deadLine;
+    }
+
     /**
      * Prints this task if its deadline falls on the given calendar day.
      * <p>
@@ -41,8 +45,16 @@ public class Deadline extends Task {
         return d.equals(day);
     }
 
+    /**
+     * Returns the deadline itself while it is still in the future.
+     */
+    @Override
+    public LocalDateTime reminderTimeAfter(LocalDateTime now) {
+        return deadLine.isAfter(now) ? deadLine : null;
+    }
+
     @Override
-    public String toString() {
+    protected String render() {
         return String.format("[%s][%s] %s %s",
                 TaskType.DEADLINE.getSymbol(),
                 isDone() ? "X" : "",
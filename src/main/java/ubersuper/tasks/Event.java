@@ -30,6 +30,14 @@ public class Event extends Task {
         this.endTime = endTime;
     }
 
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
     /**
      * Prints this event if any portion overlaps the given calendar day.
      * <p>
@@ -48,8 +56,16 @@ public class Event extends Task {
         return !day.isBefore(s) && !day.isAfter(e);
     }
 
+    /**
+     * Returns the start time while the event has not started yet.
+     */
+    @Override
+    public LocalDateTime reminderTimeAfter(LocalDateTime now) {
+        return startTime.isAfter(now) ? startTime : null;
+    }
+
     @Override
-    public String toString() {
+    protected String render() {
         return String.format("[%s][%s] %s %s %s",
                 TaskType.EVENT.getSymbol(), isDone() ? "X" : "",
                 desc(), "(from: " + display(this.startTime) + ")",
@@ -0,0 +1,153 @@
+package ubersuper.tasks;
+
+import ubersuper.exceptions.UberExceptions;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A recurrence rule such as "every week" or "every 2 days".
+ * <p>
+ * The rule is stored once with its task; occurrences are never materialised as a list. Instead
+ * {@link #occurrences(LocalDateTime, LocalDateTime, LocalDateTime)} jumps straight to the first
+ * occurrence in range and generates the rest lazily, so cost depends on how many occurrences a
+ * query actually looks at, not on how far the series extends.
+ */
+public class Recurrence {
+    private static final String USAGE = "Use: /every [n] <day | week | month>";
+
+    private final ChronoUnit unit;
+    private final int interval;
+
+    /**
+     * Creates a rule repeating every {@code interval} {@code unit}s.
+     *
+     * @param unit     one of {@link ChronoUnit#DAYS}, {@link ChronoUnit#WEEKS}, {@link ChronoUnit#MONTHS}
+     * @param interval number of units between occurrences (at least 1)
+     */
+    public Recurrence(ChronoUnit unit, int interval) {
+        assert interval >= 1 : "Recurrence interval must be positive";
+        this.unit = unit;
+        this.interval = interval;
+    }
+
+    /**
+     * Parses the text after {@code every}, e.g. {@code "week"}, {@code "2 days"} or {@code "monthly"}.
+     *
+     * @param raw rule text
+     * @return the parsed rule
+     * @throws UberExceptions if the text is not a supported rule
+     */
+    public static Recurrence parse(String raw) throws UberExceptions {
+        String[] parts = raw.trim().toLowerCase().split("\\s+");
+        int interval = 1;
+        String unitText = parts[0];
+        if (parts.length == 2) {
+            try {
+                interval = Integer.parseInt(parts[0]);
+            } catch (NumberFormatException e) {
+                throw new UberExceptions(USAGE);
+            }
+            unitText = parts[1];
+        } else if (parts.length > 2) {
+            throw new UberExceptions(USAGE);
+        }
+        if (interval < 1) {
+            throw new UberExceptions(USAGE);
+        }
+        ChronoUnit unit = switch (unitText) {
+        case "day", "days", "daily" -> ChronoUnit.DAYS;
+        case "week", "weeks", "weekly" -> ChronoUnit.WEEKS;
+        case "month", "months", "monthly" -> ChronoUnit.MONTHS;
+        default -> throw new UberExceptions(USAGE);
+        };
+        return new Recurrence(unit, interval);
+    }
+
+    /**
+     * Returns the {@code k}-th occurrence (0-based) of a series starting at {@code first}, or
+     * {@code null} if it lies past {@link LocalDateTime#MAX}, where every series ends.
+     * Computed from {@code first} every time, so month-end dates do not drift.
+     */
+    private LocalDateTime occurrence(LocalDateTime first, long k) {
+        try {
+            return first.plus(Math.multiplyExact(k, interval), unit);
+        } catch (DateTimeException | ArithmeticException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Lazily iterates the occurrences of a series starting at {@code first} that fall in
+     * {@code [from, until]}. Without an {@code until} the iteration still ends at the last
+     * occurrence before {@link LocalDateTime#MAX}.
+     *
+     * @param first first occurrence of the series
+     * @param from  earliest occurrence to return (inclusive)
+     * @param until latest occurrence to return (inclusive), or {@code null} for no bound
+     * @return iterator over matching occurrences, in order
+     */
+    public Iterator<LocalDateTime> occurrences(LocalDateTime first, LocalDateTime from, LocalDateTime until) {
+        long k = 0;
+        if (from.isAfter(first)) {
+            // whole units between never overshoot, so at most a step or two remains
+            k = unit.between(first, from) / interval;
+            LocalDateTime o = occurrence(first, k);
+            while (o != null && o.isBefore(from)) {
+                o = occurrence(first, ++k);
+            }
+        }
+        long start = k;
+        return new Iterator<>() {
+            private long k = start;
+            private LocalDateTime next = occurrence(first, start);
+
+            @Override
+            public boolean hasNext() {
+                return next != null && (until == null || !next.isAfter(until));
+            }
+
+            @Override
+            public LocalDateTime next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                LocalDateTime current = next;
+                next = occurrence(first, ++k);
+                return current;
+            }
+        };
+    }
+
+    /**
+     * Returns the first occurrence of a series starting at {@code first} that is after
+     * {@code now} and after {@code completed}, i.e. the occurrence still to be done.
+     *
+     * @param first     first occurrence of the series
+     * @param now       current date-time
+     * @param completed last occurrence completed ahead of time, or {@code null} if none
+     * @return the next open occurrence, or {@code null} if the series has ended
+     */
+    public LocalDateTime nextOpen(LocalDateTime first, LocalDateTime now, LocalDateTime completed) {
+        LocalDateTime from = completed != null && completed.isAfter(now) ? completed : now;
+        if (from.equals(LocalDateTime.MAX)) {
+            return null;
+        }
+        Iterator<LocalDateTime> next = occurrences(first, from.plusNanos(1), null);
+        return next.hasNext() ? next.next() : null;
+    }
+
+    /**
+     * Returns the rule as typed by the user and stored on disk, e.g. {@code "every 2 weeks"}.
+     */
+    @Override
+    public String toString() {
+        String name = unit.name().toLowerCase();
+        return interval == 1
+                ? "every " + name.substring(0, name.length() - 1)
+                : "every " + interval + " " + name;
+    }
+}
@@ -0,0 +1,28 @@
+package ubersuper.tasks;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+
+/**
+ * A task that repeats according to a {@link Recurrence}.
+ */
+public interface Recurring {
+
+    /**
+     * Returns the rule this task repeats by.
+     *
+     * @return recurrence rule
+     */
+    Recurrence recurrence();
+
+    /**
+     * Lazily iterates the start of every occurrence that touches the inclusive date range
+     * {@code [from, to]}.
+     *
+     * @param from first day of the range
+     * @param to   last day of the range
+     * @return iterator over occurrence start times, in order
+     */
+    Iterator<LocalDateTime> occurrences(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,122 @@
+package ubersuper.tasks;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Iterator;
+
+/**
+ * A {@link Deadline} that falls due repeatedly, e.g. every week.
+ * <p>
+ * Only the first due date and the {@link Recurrence} are stored; later due dates are generated
+ * on demand. The series is completed one occurrence at a time: {@link #mark()} completes the
+ * next due date and the task stays open for the one after it.
+ */
+public class RecurringDeadline extends Deadline implements Recurring {
+    private final Recurrence recurrence;
+    /** Last due date completed ahead of time, or {@code null}; guarded by {@code this}. */
+    private LocalDateTime completed;
+
+    /**
+     * Creates a recurring deadline.
+     *
+     * @param description short description of the task
+     * @param deadLine    first due date-time
+     * @param recurrence  how often it falls due again
+     */
+    public RecurringDeadline(String description, LocalDateTime deadLine, Recurrence recurrence) {
+        this(description, deadLine, recurrence, null);
+    }
+
+    /**
+     * Creates a recurring deadline whose due dates up to {@code completed} are already done.
+     *
+     * @param description short description of the task
+     * @param deadLine    first due date-time
+     * @param recurrence  how often it falls due again
+     * @param completed   last due date completed, or {@code null} if none
+     */
+    public RecurringDeadline(String description, LocalDateTime deadLine, Recurrence recurrence,
+                             LocalDateTime completed) {
+        super(description, deadLine);
+        this.recurrence = recurrence;
+        this.completed = completed;
+    }
+
+    @Override
+    public Recurrence recurrence() {
+        return recurrence;
+    }
+
+    @Override
+    public Iterator<LocalDateTime> occurrences(LocalDate from, LocalDate to) {
+        return recurrence.occurrences(getDeadline(), from.atStartOfDay(), to.atTime(LocalTime.MAX));
+    }
+
+    /**
+     * Returns {@code true} if any occurrence falls on {@code day}.
+     */
+    @Override
+    public boolean isOnDate(LocalDate day) {
+        return occurrences(day, day).hasNext();
+    }
+
+    /**
+     * Returns the next due date after {@code now} that is not yet completed.
+     */
+    @Override
+    public synchronized LocalDateTime reminderTimeAfter(LocalDateTime now) {
+        return recurrence.nextOpen(getDeadline(), now, completed);
+    }
+
+    /**
+     * Completes the next due date only. The task is marked done as a whole once the series
+     * has no further due dates.
+     */
+    @Override
+    public synchronized void mark() {
+        LocalDateTime next = reminderTimeAfter(LocalDateTime.now());
+        if (next == null) {
+            super.mark();
+            return;
+        }
+        completed = next;
+        super.unmark(); // still open for the following due date; also drops the cached line
+    }
+
+    /**
+     * Reopens every due date completed ahead of time.
+     */
+    @Override
+    public synchronized void unmark() {
+        completed = null;
+        super.unmark();
+    }
+
+    /**
+     * Appends the recurrence and the next open due date; the line is re-rendered once that has
+     * passed.
+     */
+    @Override
+    protected String render() {
+        LocalDateTime next = reminderTimeAfter(LocalDateTime.now());
+        expireRenderingAt(next);
+        return next == null
+                ? super.render() + " (" + recurrence + ")"
+                : super.render() + " (" + recurrence + ", next: " + display(next) + ")";
+    }
+
+    /**
+     * Returns the storage-line form:
+     * <pre>
+     * D | {0|1} | description | yyyy-MM-dd'T'HH:mm:ss | every [n] unit [| done yyyy-MM-dd'T'HH:mm:ss]
+     * </pre>
+     * where the last field is the last due date completed ahead of time, if any.
+     */
+    @Override
+    public synchronized String formatString() {
+        return completed == null
+                ? super.formatString() + " | " + recurrence
+                : super.formatString() + " | " + recurrence + " | done " + completed.format(STORAGE_DATETIME);
+    }
+}
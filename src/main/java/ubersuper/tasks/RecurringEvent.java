@@ -0,0 +1,134 @@
+package ubersuper.tasks;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Iterator;
+
+/**
+ * An {@link Event} that repeats, e.g. a weekly meeting.
+ * <p>
+ * Only the first occurrence and the {@link Recurrence} are stored; every occurrence lasts as long
+ * as the first one and is generated on demand. Like {@link RecurringDeadline}, {@link #mark()}
+ * completes the next occurrence only.
+ */
+public class RecurringEvent extends Event implements Recurring {
+    private final Recurrence recurrence;
+    private final Duration duration;
+    /** Start of the last occurrence completed ahead of time, or {@code null}; guarded by {@code this}. */
+    private LocalDateTime completed;
+
+    /**
+     * Creates a recurring event.
+     *
+     * @param description short description of the event
+     * @param startTime   start of the first occurrence
+     * @param endTime     end of the first occurrence
+     * @param recurrence  how often it repeats
+     */
+    public RecurringEvent(String description, LocalDateTime startTime, LocalDateTime endTime,
+                          Recurrence recurrence) {
+        this(description, startTime, endTime, recurrence, null);
+    }
+
+    /**
+     * Creates a recurring event whose occurrences up to {@code completed} are already done.
+     *
+     * @param description short description of the event
+     * @param startTime   start of the first occurrence
+     * @param endTime     end of the first occurrence
+     * @param recurrence  how often it repeats
+     * @param completed   start of the last occurrence completed, or {@code null} if none
+     */
+    public RecurringEvent(String description, LocalDateTime startTime, LocalDateTime endTime,
+                          Recurrence recurrence, LocalDateTime completed) {
+        super(description, startTime, endTime);
+        this.recurrence = recurrence;
+        this.duration = Duration.between(startTime, endTime);
+        this.completed = completed;
+    }
+
+    @Override
+    public Recurrence recurrence() {
+        return recurrence;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * An occurrence touches the range if it starts no later than the end of {@code to} and
+     * ends no earlier than the start of {@code from}.
+     */
+    @Override
+    public Iterator<LocalDateTime> occurrences(LocalDate from, LocalDate to) {
+        return recurrence.occurrences(getStartTime(),
+                from.atStartOfDay().minus(duration), to.atTime(LocalTime.MAX));
+    }
+
+    /**
+     * Returns {@code true} if any occurrence overlaps {@code day}.
+     */
+    @Override
+    public boolean isOnDate(LocalDate day) {
+        return occurrences(day, day).hasNext();
+    }
+
+    /**
+     * Returns the next start time after {@code now} that is not yet completed.
+     */
+    @Override
+    public synchronized LocalDateTime reminderTimeAfter(LocalDateTime now) {
+        return recurrence.nextOpen(getStartTime(), now, completed);
+    }
+
+    /**
+     * Completes the next occurrence only. The event is marked done as a whole once the series
+     * has no further occurrences.
+     */
+    @Override
+    public synchronized void mark() {
+        LocalDateTime next = reminderTimeAfter(LocalDateTime.now());
+        if (next == null) {
+            super.mark();
+            return;
+        }
+        completed = next;
+        super.unmark(); // still open for the following occurrence; also drops the cached line
+    }
+
+    /**
+     * Reopens every occurrence completed ahead of time.
+     */
+    @Override
+    public synchronized void unmark() {
+        completed = null;
+        super.unmark();
+    }
+
+    /**
+     * Appends the recurrence and the next open start; the line is re-rendered once that has passed.
+     */
+    @Override
+    protected String render() {
+        LocalDateTime next = reminderTimeAfter(LocalDateTime.now());
+        expireRenderingAt(next);
+        return next == null
+                ? super.render() + " (" + recurrence + ")"
+                : super.render() + " (" + recurrence + ", next: " + display(next) + ")";
+    }
+
+    /**
+     * Returns the storage-line form:
+     * <pre>
+     * E | {0|1} | description | start | end | every [n] unit [| done start]
+     * </pre>
+     * where the last field is the start of the last occurrence completed ahead of time, if any.
+     */
+    @Override
+    public synchronized String formatString() {
+        return completed == null
+                ? super.formatString() + " | " + recurrence
+                : super.formatString() + " | " + recurrence + " | done " + completed.format(STORAGE_DATETIME);
+    }
+}
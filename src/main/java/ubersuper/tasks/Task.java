@@ -11,6 +11,14 @@ import java.time.format.DateTimeFormatter;
  * <p>
  * Stores the shared state (description, done flag, and {@link TaskType}) and
  * provides common formatting helpers for printing and persistence.
+ * <p>
+ * The display line returned by {@link #toString()} is built once by {@link #render()} and cached
+ * until the done flag changes (or, for lines that depend on the current time, until
+ * {@link #expireRenderingAt(LocalDateTime)}), so listing a large list mostly copies cached strings.
+ * The line and its expiry are published together in one immutable {@link Rendering}, so a thread
+ * reading the cache never pairs one line with another line's expiry; rendering itself runs under
+ * the task's monitor, as do {@link #mark()} and {@link #unmark()}, so a stale line can never be
+ * cached after the done flag changed.
  * Subclasses must provide:
  * <ul>
  *   <li>{@link #formatString()} — a single-line pipe-separated form for storage</li>
@@ -18,30 +26,53 @@ import java.time.format.DateTimeFormatter;
  * </ul>
  */
 public abstract class Task {
-    // ===== Dates & Times =====
+    // ===== Dates & Times (shared by all tasks; formatters are immutable and thread-safe) =====
     /**
      * ISO local date used for storage (e.g., {@code 2019-12-02}).
      */
-    public final DateTimeFormatter STORAGE_DATE = DateTimeFormatter.ISO_LOCAL_DATE;
+    public static final DateTimeFormatter STORAGE_DATE = DateTimeFormatter.ISO_LOCAL_DATE;
 
     /**
      * ISO local date-time used for storage (e.g., {@code 2019-12-02T18:00:00}).
      */
-    public final DateTimeFormatter STORAGE_DATETIME = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    public static final DateTimeFormatter STORAGE_DATETIME = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
     /**
      * Human-friendly date (e.g., {@code Dec 02 2019}).
      */
-    private final DateTimeFormatter DISPLAY_DATE = DateTimeFormatter.ofPattern("MMM dd yyyy");
+    private static final DateTimeFormatter DISPLAY_DATE = DateTimeFormatter.ofPattern("MMM dd yyyy");
 
     /**
      * Human-friendly date-time (e.g., {@code 2019-12-02 18:00}).
      */
-    private final DateTimeFormatter DISPLAY_DATETIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final DateTimeFormatter DISPLAY_DATETIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
-    private boolean isDone = false;
+    private volatile boolean isDone = false;
     private final String description;
     private final TaskType type;
+    private String client;
+    /** 0-based index of this task in the {@link TaskList} holding it; brought up to date by that list when read. */
+    int position;
+    private volatile Rendering rendering;
+    /** Expiry set by {@link #expireRenderingAt} during the render in progress; guarded by {@code this}. */
+    private LocalDateTime renderingUntil;
+
+    /**
+     * A cached display line and the moment it goes stale ({@code null} if it does not).
+     */
+    private static final class Rendering {
+        private final String line;
+        private final LocalDateTime until;
+
+        private Rendering(String line, LocalDateTime until) {
+            this.line = line;
+            this.until = until;
+        }
+
+        private boolean isValid() {
+            return until == null || LocalDateTime.now().isBefore(until);
+        }
+    }
 
     /**
      * Creates a task with the given description and type.
@@ -77,13 +108,26 @@ public abstract class Task {
      */
     public abstract boolean isOnDate(LocalDate day);
 
-    public void mark() {
+    /**
+     * Returns the next moment strictly after {@code now} at which a reminder for this task
+     * should fire, or {@code null} if there is none. Plain tasks have no reminders.
+     *
+     * @param now current date-time
+     * @return next reminder time, or {@code null}
+     */
+    public LocalDateTime reminderTimeAfter(LocalDateTime now) {
+        return null;
+    }
+
+    public synchronized void mark() {
         this.isDone = true;
+        this.rendering = null;
     }
 
 
-    public void unmark() {
+    public synchronized void unmark() {
         this.isDone = false;
+        this.rendering = null;
     }
 
 
@@ -100,11 +144,64 @@ public abstract class Task {
         return type;
     }
 
+    /**
+     * Returns the name of the client this task belongs to, or {@code null} if none.
+     */
+    public String client() {
+        return client;
+    }
+
+    /**
+     * Assigns this task to a client. Must be called before the task is added to a {@link TaskList}.
+     *
+     * @param client client name, or {@code null} for none
+     */
+    public void setClient(String client) {
+        this.client = client;
+    }
+
+    /**
+     * Returns the display line of this task, from the cache when it is still valid.
+     */
     @Override
     public String toString() {
+        Rendering r = rendering;
+        if (r != null && r.isValid()) {
+            return r.line;
+        }
+        synchronized (this) {
+            r = rendering;
+            if (r == null || !r.isValid()) {
+                renderingUntil = null;
+                String line = render();
+                r = new Rendering(line, renderingUntil);
+                rendering = r;
+            }
+            return r.line;
+        }
+    }
+
+    /**
+     * Builds the display line of this task; {@link #toString()} caches the result.
+     * Subclasses extend this instead of overriding {@link #toString()}.
+     *
+     * @return display line, e.g. {@code "[T][X] read book"}
+     */
+    protected String render() {
         return String.format("[%s][%s] %s", type.getSymbol(), isDone ? "X" : "", description);
     }
 
+    /**
+     * Marks the line being rendered as valid only until {@code time}, for lines that depend on the
+     * current time. Call from {@link #render()}.
+     *
+     * @param time moment the line goes stale, or {@code null} if it does not
+     */
+    protected void expireRenderingAt(LocalDateTime time) {
+        assert Thread.holdsLock(this) : "only render() may set the expiry";
+        this.renderingUntil = time;
+    }
+
     /**
      * Formats a {@link LocalDateTime} for display.
      * <p>
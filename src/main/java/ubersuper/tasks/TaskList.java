@@ -1,7 +1,14 @@
 package ubersuper.tasks;
 
 import ubersuper.exceptions.UberExceptions;
+import ubersuper.utils.InternPool;
 import ubersuper.utils.Parser;
+import ubersuper.utils.change.ChangeType;
+import ubersuper.utils.change.PublishingList;
+import ubersuper.utils.command.CommandArgs;
+import ubersuper.utils.command.CommandTable;
+import ubersuper.utils.response.Response;
+import ubersuper.utils.response.ResponseKind;
 import ubersuper.utils.storage.DataStorage;
 import ubersuper.utils.storage.TaskStorage;
 import ubersuper.utils.ui.Ui;
@@ -12,23 +19,46 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 /**
  * Mutable list of {@link Task} items plus high-level operations used by the UI.
  * <p>
  * Responsibilities:
  * <ul>
- *   <li>Holds tasks in memory (extends {@code ArrayList<Task>}).</li>
+ *   <li>Holds tasks in memory (a {@link PublishingList}).</li>
  *   <li>Implements command behaviors: {@code list}, {@code todo}, {@code deadline},
  *       {@code event}, {@code delete}, {@code mark}, {@code unmark}, {@code onDate}.</li>
  *   <li>Stores changes to {@link DataStorage} after any state change.</li>
- *   <li>Prints user-facing messages (divider lines are handled by {@link Ui}).</li>
+ *   <li>Publishes every add/remove/mark/unmark on {@link #changes()}, including those made by the
+ *       bulk {@code List} operations.</li>
+ *   <li>Indexes tasks by client in {@link ClientPartitions}, so {@code /client <name>} queries
+ *       only visit that client's tasks. Their replies still number each task by its position in
+ *       the whole list, which tasks record and the list brings up to date lazily, once per query
+ *       after mutations rather than on every insertion or removal.</li>
+ *   <li>Runs each command under the list's {@link #write(java.util.function.Supplier) write} or
+ *       {@link #read(java.util.function.Supplier) read} lock, so the list, the client index and
+ *       the saved file stay in step when commands run on several threads. Queries, including
+ *       those for different clients, run concurrently; mutations are serialised list-wide, not per
+ *       client, because each one shifts the positions of every later task and rewrites the one
+ *       tasks file.</li>
+ *   <li>With {@link #setClientNames(UnaryOperator)}, accepts only {@code /client} names of known
+ *       clients.</li>
+ *   <li>Replies with {@link Response}s, which are rendered to text (with the divider lines of
+ *       {@link Ui}) only when shown.</li>
  * </ul>
  */
-public class TaskList extends ArrayList<Task> {
+public class TaskList extends PublishingList<Task> {
     private final TaskStorage taskStorage;
+    private final ClientPartitions partitions = new ClientPartitions();
+    private final InternPool strings = new InternPool();
+    /** Tasks from this index on may hold stale positions; set under the write lock. */
+    private int renumberFrom;
+    /** Held by a query bringing positions up to date, so concurrent queries do it once. */
+    private final Object renumbering = new Object();
+    private volatile UnaryOperator<String> clientNames;
 
     /**
      * Creates a {@code TaskList} bound to a storage backend.
@@ -39,158 +69,257 @@ public class TaskList extends ArrayList<Task> {
         this.taskStorage = taskStorage;
     }
 
+    /**
+     * Returns the pool that deduplicates strings read from storage into this list.
+     *
+     * @return this list's string pool
+     */
+    public InternPool strings() {
+        return strings;
+    }
+
+    /**
+     * Makes {@code /client} names resolve through {@code clientNames}, which returns the stored
+     * name of a known client (matched ignoring case and spacing) or {@code null}. Once set, a name
+     * matching no client is rejected, so a typo cannot start a partition of its own.
+     *
+     * @param clientNames lookup of known client names, or {@code null} to accept any name
+     */
+    public void setClientNames(UnaryOperator<String> clientNames) {
+        this.clientNames = clientNames;
+    }
+
+    @Override
+    protected void added(int index, Task t) {
+        partitions.add(t);
+        renumberFrom = Math.min(renumberFrom, index);
+    }
+
+    @Override
+    protected void removed(int index, Task t) {
+        partitions.remove(t);
+        renumberFrom = Math.min(renumberFrom, index);
+    }
+
+    /**
+     * Updates the positions of the tasks that shifted since the last call. Call with the read or
+     * write lock held.
+     */
+    private void renumber() {
+        synchronized (renumbering) {
+            for (int i = renumberFrom; i < this.size(); i++) {
+                this.get(i).position = i;
+            }
+            renumberFrom = this.size();
+        }
+    }
+
+    /**
+     * Marks or unmarks the task at a 0-based position and publishes the change,
+     * without saving or building a reply.
+     *
+     * @param index 0-based position of the task
+     * @param done  {@code true} to mark as done, {@code false} to mark as not done
+     */
+    public void setDone(int index, boolean done) {
+        write(() -> {
+            Task t = this.get(index);
+            if (done) {
+                t.mark();
+                publish(ChangeType.MARKED, index, t);
+            } else {
+                t.unmark();
+                publish(ChangeType.UNMARKED, index, t);
+            }
+            return t;
+        });
+    }
+
+    /**
+     * Same as {@link #mark(String, int)}, dispatching {@code input} first.
+     */
+    public Response mark(String input) throws UberExceptions {
+        return mark(input, CommandTable.dispatch(input));
+    }
+
     /**
      * Marks the i-th task as done (1-based index), saves the list, and prints a confirmation.
      *
-     * @param input full user input line, e.g., {@code "mark 3"}
-     * @return String message
+     * @param input      full user input line, e.g., {@code "mark 3"}
+     * @param dispatched {@link CommandTable#dispatch(CharSequence)} of {@code input}
+     * @return confirmation naming the task
      * @throws UberExceptions if the index is missing or out of range
      */
-    public String mark(String input) throws UberExceptions {
-        String message = "";
-        String[] parts = input.split("\\s+", 2);
-        int i = Integer.parseInt(parts[1]);
-        if (i < 1 || i > this.size()) {
-            throw new UberExceptions("There's no such task in the list");
-        }
-        Task t = this.get(i - 1);
-        assert t != null : "Task retrieved for marking should not be null";
-        t.mark();
-        taskStorage.save(this);
-        message += Ui.printLine();
-        message += "Nice! I've marked this task as done: \n";
-        message += t + "\n";
-        message += Ui.printLine();
-        return message;
+    public Response mark(String input, int dispatched) throws UberExceptions {
+        int i = CommandArgs.index(input, dispatched);
+        return write(() -> {
+            if (i < 1 || i > this.size()) {
+                throw new UberExceptions("There's no such task in the list");
+            }
+            Task t = this.get(i - 1);
+            assert t != null : "Task retrieved for marking should not be null";
+            setDone(i - 1, true);
+            taskStorage.save(this);
+            return Response.confirm(ResponseKind.MARKED, "Nice! I've marked this task as done: \n", t, -1, null,
+                    true);
+        });
+    }
+
+    /**
+     * Same as {@link #unmark(String, int)}, dispatching {@code input} first.
+     */
+    public Response unmark(String input) throws UberExceptions {
+        return unmark(input, CommandTable.dispatch(input));
     }
 
     /**
      * Marks the i-th task as not done (1-based index), saves the list, and prints a confirmation.
      *
-     * @param input full user input line, e.g., {@code "unmark 2"}
-     * @return String message
+     * @param input      full user input line, e.g., {@code "unmark 2"}
+     * @param dispatched {@link CommandTable#dispatch(CharSequence)} of {@code input}
+     * @return confirmation naming the task
      * @throws UberExceptions if the index is missing or out of range
      */
-    public String unmark(String input) throws UberExceptions {
-        String message = "";
-        String[] parts = input.split("\\s+", 2);
-        int i = Integer.parseInt(parts[1]);
-        if (i < 1 || i > this.size()) {
-            throw new UberExceptions("There's no such task in the list");
-        }
-        Task t = this.get(i - 1);
-        assert t != null : "Task retrieved for marking should not be null";
-        t.unmark();
-        taskStorage.save(this);
-        message += Ui.printLine();
-        message += "Ok, I've marked this task as not done yet: \n";
-        message += t + "\n";
-        message += Ui.printLine();
-        return message;
+    public Response unmark(String input, int dispatched) throws UberExceptions {
+        int i = CommandArgs.index(input, dispatched);
+        return write(() -> {
+            if (i < 1 || i > this.size()) {
+                throw new UberExceptions("There's no such task in the list");
+            }
+            Task t = this.get(i - 1);
+            assert t != null : "Task retrieved for marking should not be null";
+            setDone(i - 1, false);
+            taskStorage.save(this);
+            return Response.confirm(ResponseKind.UNMARKED, "Ok, I've marked this task as not done yet: \n", t,
+                    -1, null, true);
+        });
+    }
+
+    /**
+     * Same as {@link #todo(String, int)}, dispatching {@code input} first.
+     */
+    public Response todo(String input) throws UberExceptions {
+        return todo(input, CommandTable.dispatch(input));
     }
 
     /**
      * Adds a {@link Todo} from the given input, saves the list, and prints a confirmation.
-     * <p>Expected format: {@code "todo <description>"}.</p>
+     * <p>Expected format: {@code "todo <description> [/client <name>]"}.</p>
      *
-     * @param input full user input line
-     * @return String message
+     * @param input      full user input line
+     * @param dispatched {@link CommandTable#dispatch(CharSequence)} of {@code input}
+     * @return confirmation naming the new task
      * @throws UberExceptions if the description is missing/blank
      */
-    public String todo(String input) throws UberExceptions {
-        String[] parts = input.split("\\s+", 2);
-        if (parts.length < 2 || parts[1].trim().isEmpty()) {
+    public Response todo(String input, int dispatched) throws UberExceptions {
+        CommandArgs args = CommandArgs.parse(input, dispatched, "client");
+        if (args.body().isEmpty()) {
             throw new UberExceptions("You forgot to include what you're supposed to do");
         }
-        Todo t = new Todo(parts[1].trim());
-        this.add(t);
-        return this.save(t);
+        Todo t = new Todo(args.body());
+        t.setClient(client(args));
+        return this.addAndSave(t);
     }
 
     /**
      * Stores the current list and prints the "added" confirmation for the provided task.
      *
      * @param t the task that was just added
-     * @return String message
+     * @return confirmation naming the task and the new list size
      */
-    public String save(Task t) {
+    public Response save(Task t) {
         assert t != null : "Task passed to save() must not be null";
-        String message = "";
-        taskStorage.save(this);
-        message += String.format("You now have %d tasks in the list \n", this.size());
-        message = Ui.printLine() + "Got it! I've added this task:\n" + t + "\n" + message + Ui.printLine();
-        return message;
+        return write(() -> {
+            taskStorage.save(this);
+            return Response.confirm(ResponseKind.ADDED, "Got it! I've added this task:\n", t, this.size(), "tasks",
+                    true);
+        });
+    }
+
+    /**
+     * Adds {@code t}, then saves and confirms as {@link #save(Task)} does, all under the write lock.
+     */
+    private Response addAndSave(Task t) {
+        return write(() -> {
+            this.add(t);
+            return this.save(t);
+        });
+    }
+
+    /**
+     * Same as {@link #deadline(String, int)}, dispatching {@code input} first.
+     */
+    public Response deadline(String input) throws UberExceptions {
+        return deadline(input, CommandTable.dispatch(input));
     }
 
     /**
      * Adds a {@link Deadline} parsed from user input, saves the list, and prints a confirmation.
-     * <p>Expected format: {@code "deadline <desc> /by <when>"}.</p>
+     * <p>Expected format: {@code "deadline <desc> /by <when> [/every [n] <day|week|month>] [/client <name>]"}.</p>
      * <p>
      * Supported {@code <when>} formats are delegated to {@link Parser#parseDateTime(String)} and include:
      * {@code yyyy-MM-dd}, {@code yyyy-MM-dd HH:mm}, {@code yyyy-MM-dd'T'HH:mm}, {@code d/M/uuuu [HHmm]},
      * {@code d-M-uuuu [HHmm]}.
      * </p>
      *
-     * @param input full user input line
-     * @return String message
+     * @param input      full user input line
+     * @param dispatched {@link CommandTable#dispatch(CharSequence)} of {@code input}
+     * @return confirmation naming the new task
      * @throws UberExceptions if the format is wrong or date-time cannot be parsed
      */
-    public String deadline(String input) throws UberExceptions {
-        String[] parts = input.split("/");
-        if (parts.length < 2) {
-            throw new UberExceptions("Provide a proper deadline,");
-        }
-        String desc = parts[0].replaceFirst("deadline", "").trim();
-        String[] p1 = parts[1].trim().split("\\s+", 2);
-        if (p1.length < 2 || !p1[0].equalsIgnoreCase("by")) {
-            throw new UberExceptions("Use format: deadline <desc> / by <time>");
-        }
-        String p2 = p1[1].trim();
+    public Response deadline(String input, int dispatched) throws UberExceptions {
+        CommandArgs args = CommandArgs.parse(input, dispatched, "by", "every", "client");
+        String by = args.require("by", "Use format: deadline <desc> /by <time>");
+        String desc = args.body();
         if (desc.isEmpty()) {
             throw new UberExceptions("Please provide a description");
         }
-        LocalDateTime dl = Parser.parseDateTime(p2);
+        LocalDateTime dl = Parser.parseDateTime(by);
         assert dl != null : "Parsed deadline datetime should not be null";
-        Deadline d = new Deadline(desc, dl);
-        this.add(d);
-        return this.save(d);
+        Recurrence every = every(args);
+        Deadline d = every == null ? new Deadline(desc, dl) : new RecurringDeadline(desc, dl, every);
+        d.setClient(client(args));
+        return this.addAndSave(d);
+    }
+
+    /**
+     * Same as {@link #event(String, int)}, dispatching {@code input} first.
+     */
+    public Response event(String input) throws UberExceptions {
+        return event(input, CommandTable.dispatch(input));
     }
 
     /**
      * Adds an {@link Event} parsed from user input, saves the list, and prints a confirmation.
-     * <p>Expected format: {@code "event <desc> /from <start> /to <end>"}.</p>
+     * <p>Expected format:
+     * {@code "event <desc> /from <start> /to <end> [/every [n] <day|week|month>] [/client <name>]"}.</p>
      * <p>
      * Date-time parsing is delegated to {@link Parser#parseDateTime(String)} and supports the same formats
      * as {@link #deadline(String)}. The end time must not be before the start time.
      * </p>
      *
-     * @param input full user input line
-     * @return String message
+     * @param input      full user input line
+     * @param dispatched {@link CommandTable#dispatch(CharSequence)} of {@code input}
+     * @return confirmation naming the new task, or the problem with the input
      * @throws UberExceptions if the format is wrong, dates cannot be parsed, or end &lt; start
      */
-    public String event(String input) throws UberExceptions {
+    public Response event(String input, int dispatched) throws UberExceptions {
         try {
-            String[] parts = input.split("/");
-            if (parts.length < 2) {
+            CommandArgs args = CommandArgs.parse(input, dispatched, "from", "to", "every", "client");
+            if (!args.has("from")) {
                 throw new UberExceptions("There's nothing happening whenever");
-            } else if (parts.length < 3) {
+            } else if (!args.has("to")) {
                 throw new UberExceptions("So when does it end?");
             }
 
-            String desc = parts[0].replaceFirst("event", "").trim();
-            String fromPart = parts[1].trim(); // "from ..."
-            String toPart = parts[2].trim(); // "to ..."
-
+            String desc = args.body();
             if (desc.isEmpty()) {
                 throw new UberExceptions("Please describe the event");
             }
-            //ensure correct formatting
-            if (!fromPart.toLowerCase().startsWith("from") || !toPart.toLowerCase().startsWith("to")) {
-                throw new UberExceptions("Use format: event <desc> /from <start> /to <end>");
-            }
 
-            LocalDateTime startTime = Parser.parseDateTime(fromPart.substring(4).trim());
-            LocalDateTime endTime = Parser.parseDateTime(toPart.substring(2).trim());
+            String usage = "Use format: event <desc> /from <start> /to <end>";
+            LocalDateTime startTime = Parser.parseDateTime(args.require("from", usage));
+            LocalDateTime endTime = Parser.parseDateTime(args.require("to", usage));
 
             assert startTime != null : "Event start time should not be null";
             assert endTime != null : "Event end time should not be null";
@@ -198,14 +327,57 @@ public class TaskList extends ArrayList<Task> {
             if (endTime.isBefore(startTime)) {
                 throw new UberExceptions("End time cannot be before start time.");
             }
-            Event ev = new Event(desc, startTime, endTime);
-            this.add(ev);
-            return this.save(ev);
+            Recurrence every = every(args);
+            Event ev = every == null
+                    ? new Event(desc, startTime, endTime)
+                    : new RecurringEvent(desc, startTime, endTime, every);
+            ev.setClient(client(args));
+            return this.addAndSave(ev);
         } catch (UberExceptions e) {
-            return Ui.printLine() + e.getMessage() + "\n" + Ui.printLine();
+            return Response.error(e.getMessage());
         }
     }
 
+    /**
+     * Returns the recurrence given by {@code /every ...}, or {@code null} if there is none.
+     */
+    private static Recurrence every(CommandArgs args) {
+        return args.has("every") ? Recurrence.parse(args.value("every")) : null;
+    }
+
+    /**
+     * Returns the client named by {@code /client <name>}, normalised by {@link ClientPartitions#name}
+     * and, with {@link #setClientNames} set, as the client is stored; {@code null} if there is none.
+     *
+     * @throws UberExceptions if the flag is given without a name, or names no known client
+     */
+    private String client(CommandArgs args) throws UberExceptions {
+        if (!args.has("client")) {
+            return null;
+        }
+        String name = ClientPartitions.name(args.value("client"));
+        if (name == null) {
+            throw new UberExceptions("Use: /client <name>");
+        }
+        UnaryOperator<String> known = clientNames;
+        if (known == null) {
+            return name;
+        }
+        String stored = known.apply(name);
+        if (stored == null) {
+            throw new UberExceptions(String.format("There is no client named '%s'. Add them first with: "
+                    + "addclient <name> /phone <p> /email <e>", name));
+        }
+        return stored;
+    }
+
+    /**
+     * Same as {@link #onDate(String, int)}, dispatching {@code input} first.
+     */
+    public Response onDate(String input) throws UberExceptions {
+        return onDate(input, CommandTable.dispatch(input));
+    }
+
     /**
      * Lists deadlines/events that occur on a specific date (Todos are ignored).
      * <p>Expected formats: {@code onDate yyyy-MM-dd} or {@code onDate d/M/uuuu}.</p>
@@ -219,16 +391,21 @@ public class TaskList extends ArrayList<Task> {
      * </ul>
      * </p>
      *
-     * @param input full user input line, e.g., {@code "onDate 2019-12-02"}
+     * With {@code /client <name>}, only that client's tasks are scanned.
+     *
+     * @param input      full user input line, e.g., {@code "onDate 2019-12-02"}
+     * @param dispatched {@link CommandTable#dispatch(CharSequence)} of {@code input}
+     * @return the matching tasks
      * @throws UberExceptions if the date cannot be parsed
      */
-    public String onDate(String input) throws UberExceptions {
-        String[] parts = input.split("\\s+", 2);
-        if (parts.length < 2) {
+    public Response onDate(String input, int dispatched) throws UberExceptions {
+        CommandArgs args = CommandArgs.parse(input, dispatched, "client");
+        String client = client(args);
+        String raw = args.body();
+        if (raw.isEmpty()) {
             throw new UberExceptions("Use: onDate <yyyy-mm-dd | dd/MM/yyyy>");
         }
         LocalDate day;
-        String raw = parts[1].trim();
         try {
             day = LocalDate.parse(raw);
         } catch (DateTimeParseException ex) {
@@ -241,68 +418,129 @@ public class TaskList extends ArrayList<Task> {
         }
 
         LocalDate finalDay = day;
-        String results = IntStream.range(0, this.size())
-                .mapToObj(i -> {
-                    Task t = this.get(i);
-                    assert t != null : "Task in TaskList should not be null";
-                    if (t instanceof Deadline d) {
-                        if (d.isOnDate(finalDay)) {
-                            return ++i + ". " + t;
-                        }
-                    } else if (t instanceof Event ev) {
-                        // consider an event "occurring on" if any part of it touches that date
-                        if (ev.isOnDate(finalDay)) {
-                            return ++i + ". " + t;
-                        }
+        // an event "occurs on" a day if any part of it touches that date; todos never do
+        Predicate<Task> onDay = t -> (t instanceof Deadline || t instanceof Event) && t.isOnDate(finalDay);
+        if (client != null) {
+            return matching(client, onDay, ResponseKind.MATCHES, "Items for " + client + " on "
+                    + day.format(DateTimeFormatter.ofPattern("MMM dd yyyy")) + ": \n", "(No items.)", false);
+        }
+        return matching(onDay, "Items on " + day.format(DateTimeFormatter.ofPattern("MMM dd yyyy")) + ": \n",
+                "(No items.)");
+    }
+
+    /**
+     * Lists the tasks that satisfy {@code test}, numbered by their position in this list.
+     */
+    private Response matching(Predicate<Task> test, String message, String whenEmpty) {
+        return read(() -> {
+            List<Task> matches = new ArrayList<>();
+            int[] numbers = new int[8];
+            for (int i = 0; i < this.size(); i++) {
+                Task t = this.get(i);
+                assert t != null : "Task in TaskList should not be null";
+                if (test.test(t)) {
+                    if (matches.size() == numbers.length) {
+                        numbers = Arrays.copyOf(numbers, numbers.length * 2);
                     }
-                    return null;
-                })
-                .filter(Objects::nonNull)
-                .collect(Collectors.joining("\n"));
+                    numbers[matches.size()] = i + 1;
+                    matches.add(t);
+                }
+            }
+            return Response.list(ResponseKind.MATCHES, message, matches, Response.Layout.NUMBERED, numbers,
+                    whenEmpty, false);
+        });
+    }
+
+    /**
+     * Lists the tasks of {@code client} that satisfy {@code test}, numbered by their position in
+     * this list like {@code listtask} numbers them. Only that client's tasks are visited.
+     */
+    private Response matching(String client, Predicate<Task> test, ResponseKind kind, String message,
+                              String whenEmpty, boolean newlineAfterItems) {
+        return read(() -> {
+            renumber();
+            List<Task> matches = new ArrayList<>();
+            for (Task t : partitions.of(client)) {
+                if (test.test(t)) {
+                    matches.add(t);
+                }
+            }
+            // tasks inserted mid-list (e.g. by a reload) join the end of their partition
+            matches.sort(Comparator.comparingInt(t -> t.position));
+            int[] numbers = new int[matches.size()];
+            for (int i = 0; i < numbers.length; i++) {
+                numbers[i] = matches.get(i).position + 1;
+            }
+            return Response.list(kind, message, matches, Response.Layout.NUMBERED, numbers, whenEmpty,
+                    newlineAfterItems);
+        });
+    }
 
-        if (results.isBlank()) {
-            results = "(No items.)";
+    /**
+     * Same as {@link #list(String, int)}, dispatching {@code input} first.
+     */
+    public Response list(String input) {
+        return list(input, CommandTable.dispatch(input));
+    }
+
+    /**
+     * Lists tasks for {@code listtask [/client <name>]}: all tasks with their 1-based indices,
+     * or only the given client's tasks.
+     *
+     * @param input      full user input line
+     * @param dispatched {@link CommandTable#dispatch(CharSequence)} of {@code input}
+     * @return the listed tasks
+     */
+    public Response list(String input, int dispatched) {
+        String client = client(CommandArgs.parse(input, dispatched, "client"));
+        if (client == null) {
+            return list();
         }
-        return "Items on " + day.format(DateTimeFormatter.ofPattern("MMM dd yyyy")) + ": \n"
-                + results;
+        return matching(client, t -> true, ResponseKind.LIST, "Here are the tasks for " + client + ":\n",
+                "(No items.)", true);
     }
 
     /**
-     * Returns a String of all tasks with their 1-based indices.
+     * Lists all tasks with their 1-based indices.
      */
-    public String list() {
-        String tasks = IntStream.range(0, this.size())
-                .mapToObj(i -> (i + 1) + ". " + this.get(i))
-                .collect(Collectors.joining("\n"));
+    public Response list() {
+        return Response.list(ResponseKind.LIST, "Here are the tasks in your list:\n", read(() -> List.copyOf(this)),
+                Response.Layout.NUMBERED, null, null, true);
+    }
 
-        return "Here are the tasks in your list:\n"
-                + tasks + "\n";
+    /**
+     * Same as {@link #delete(String, int)}, dispatching {@code input} first.
+     */
+    public Response delete(String input) throws UberExceptions {
+        return delete(input, CommandTable.dispatch(input));
     }
 
     /**
      * Deletes the i-th task (1-based index), saves the list, and prints a confirmation.
      *
-     * @param input full user input line, e.g., {@code "delete 1"}
+     * @param input      full user input line, e.g., {@code "delete 1"}
+     * @param dispatched {@link CommandTable#dispatch(CharSequence)} of {@code input}
+     * @return confirmation naming the task and the new list size
      * @throws UberExceptions if the index is missing or out of range
      */
-    public String delete(String input) throws UberExceptions {
-        String message = "";
-        String[] parts = input.split("\\s+", 2);
-        int i = Integer.parseInt(parts[1]);
-        if (i > this.size()) {
-            throw new UberExceptions("You're deleting something that doesn't exist");
-        }
-        Task t = this.get(i - 1);
-        this.remove(i - 1);
-        taskStorage.save(this);
-        message += String.format("You now have %d tasks in the list \n", this.size());
-        message = Ui.printLine()
-                + "Ok, I've removed this task from the list: \n"
-                + t + "\n"
-                + message
-                + Ui.printLine();
+    public Response delete(String input, int dispatched) throws UberExceptions {
+        int i = CommandArgs.index(input, dispatched);
+        return write(() -> {
+            if (i < 1 || i > this.size()) {
+                throw new UberExceptions("You're deleting something that doesn't exist");
+            }
+            Task t = this.remove(i - 1);
+            taskStorage.save(this);
+            return Response.confirm(ResponseKind.REMOVED, "Ok, I've removed this task from the list: \n", t,
+                    this.size(), "tasks", true);
+        });
+    }
 
-        return message;
+    /**
+     * Same as {@link #find(String, int)}, dispatching {@code input} first.
+     */
+    public Response find(String input) throws UberExceptions {
+        return find(input, CommandTable.dispatch(input));
     }
 
     /**
@@ -314,36 +552,43 @@ public class TaskList extends ArrayList<Task> {
      *   find return book
      * </pre>
      *
-     * @return String message
      * Matching is OR across keywords: a task is listed if its description contains at least one keyword.
+     * With {@code /client <name>}, only that client's tasks are searched.
+     *
+     * @param input      full user input line
+     * @param dispatched {@link CommandTable#dispatch(CharSequence)} of {@code input}
+     * @return the matching tasks
      */
-    public String find(String input) throws UberExceptions {
-        String[] parts = input.split("\\s+", 2);
-        if (parts.length < 2 || parts[1].isBlank()) {
+    public Response find(String input, int dispatched) throws UberExceptions {
+        CommandArgs args = CommandArgs.parse(input, dispatched, "client");
+        String client = client(args);
+        String query = args.body();
+        if (query.isEmpty()) {
             throw new UberExceptions("Use: findtask <keyword(s)>");
         }
 
         // Split the query into keywords and match, case-insensitive
-        String[] keywords = parts[1].toLowerCase().split("\\s+");
-
-        String matches = IntStream.range(0, this.size())
-                .mapToObj(i -> {
-                    Task t = this.get(i);
-                    assert t != null : "Task in TaskList should not be null";
-                    String desc = t.desc().toLowerCase();
-                    boolean found = Arrays.stream(keywords)
-                            .filter(k -> !k.isBlank())
-                            .anyMatch(desc::contains);
-                    return found ? (i + 1) + ". " + t : null;
-                })
-                .filter(Objects::nonNull)
-                .collect(Collectors.joining("\n"));
-
-        if (matches.isBlank()) {
-            String query = input.replaceFirst("findtask", "");
+        String[] keywords = args.words();
+        for (int k = 0; k < keywords.length; k++) {
+            keywords[k] = keywords[k].toLowerCase();
+        }
+        Predicate<Task> matchesAny = t -> {
+            String desc = t.desc().toLowerCase();
+            return Arrays.stream(keywords).anyMatch(desc::contains);
+        };
+        if (client != null) {
+            Response forClient = matching(client, matchesAny, ResponseKind.MATCHES,
+                    "Here are the matching tasks for " + client + ": \n", null, false);
+            if (forClient.items().isEmpty()) {
+                throw new UberExceptions(String.format("There are no matches for '%s' for %s", query, client));
+            }
+            return forClient;
+        }
+
+        Response matches = matching(matchesAny, "Here are the matching tasks in your list: \n", null);
+        if (matches.items().isEmpty()) {
             throw new UberExceptions(String.format("There are no matches for '%s' in your list", query));
         }
-        return "Here are the matching tasks in your list: \n"
-                + matches;
+        return matches;
     }
 }
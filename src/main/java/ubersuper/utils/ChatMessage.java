@@ -0,0 +1,89 @@
+package ubersuper.utils;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the chat transcript: who said it, what was said and when.
+ * <p>
+ * The transcript keeps only these small records and turns the few that are on screen into
+ * nodes. A message read from or written to the {@link ubersuper.utils.storage.ChatLog} also knows
+ * where it is stored there.
+ */
+public final class ChatMessage {
+    /**
+     * Who a message is from, which decides the side and style of its bubble.
+     */
+    public enum Sender {
+        USER,
+        BOT,
+        /** A bot reply reporting a failed command. */
+        ERROR
+    }
+
+    private final Sender sender;
+    private final String text;
+    private final LocalDateTime time;
+    private final long position;
+
+    /**
+     * Creates a message that is not stored in a log.
+     *
+     * @param sender who the message is from
+     * @param text   message text
+     * @param time   when it was sent
+     */
+    public ChatMessage(Sender sender, String text, LocalDateTime time) {
+        this(sender, text, time, -1);
+    }
+
+    /**
+     * Creates a message stored in a log.
+     *
+     * @param sender   who the message is from
+     * @param text     message text
+     * @param time     when it was sent
+     * @param position where the message starts in the log, or {@code -1} if it is not stored
+     */
+    public ChatMessage(Sender sender, String text, LocalDateTime time, long position) {
+        this.sender = sender;
+        this.text = text;
+        this.time = time;
+        this.position = position;
+    }
+
+    public static ChatMessage user(String text) {
+        return new ChatMessage(Sender.USER, text, LocalDateTime.now());
+    }
+
+    public static ChatMessage bot(String text) {
+        return new ChatMessage(Sender.BOT, text, LocalDateTime.now());
+    }
+
+    public static ChatMessage error(String text) {
+        return new ChatMessage(Sender.ERROR, text, LocalDateTime.now());
+    }
+
+    public Sender sender() {
+        return sender;
+    }
+
+    public String text() {
+        return text;
+    }
+
+    public LocalDateTime time() {
+        return time;
+    }
+
+    /**
+     * Returns where the message starts in the chat log, or {@code -1} if it is not stored.
+     */
+    public long position() {
+        return position;
+    }
+
+    @Override
+    public String toString() {
+        return sender + ": " + text;
+    }
+}
@@ -0,0 +1,143 @@
+package ubersuper.utils;
+
+import java.io.Closeable;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Runs the latest of a stream of queries, such as search-as-you-type, off the caller's thread.
+ * <p>
+ * A query submitted after a pause of at least the delay runs at once; only the follow-ups of a
+ * burst (e.g. fast typing or a paste) wait out the delay. Each {@link #submit(Callable)} replaces
+ * the previous query: a query still waiting is dropped, and one already running is interrupted.
+ * A query should call {@link #checkCancelled()} now and then so an interrupted scan stops early,
+ * and a long one may hand over what it has so far with {@link #offer(Object)}. Results and
+ * failures are handed over on the given executor (the UI thread in the GUI), and only if no newer
+ * query was submitted in the meantime, so a slow, stale result never overwrites a newer one.
+ *
+ * @param <R> result type
+ */
+public class DebouncedQuery<R> implements Closeable {
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "debounced-query");
+        t.setDaemon(true);
+        return t;
+    });
+    private final long delayMillis;
+    private final Executor deliverOn;
+    private final Consumer<R> onResult;
+    private final Consumer<Exception> onError;
+    private final AtomicLong generation = new AtomicLong();
+    private Future<?> pending;
+    private long lastSubmitNanos;
+    /** Generation of the query running on the worker; only touched by the worker thread. */
+    private long running;
+
+    /**
+     * Creates a query runner.
+     *
+     * @param delayMillis how long a query that follows another within this time waits for a newer one
+     * @param deliverOn   executor to deliver results and failures on
+     * @param onResult    receives the result of each query that was not superseded
+     * @param onError     receives the exception of each failed query that was not superseded
+     */
+    public DebouncedQuery(long delayMillis, Executor deliverOn, Consumer<R> onResult, Consumer<Exception> onError) {
+        this.delayMillis = delayMillis;
+        this.deliverOn = deliverOn;
+        this.onResult = onResult;
+        this.onError = onError;
+    }
+
+    /**
+     * Runs {@code query} on a background thread, superseding any earlier query: at once after a
+     * pause of at least the delay, otherwise after the delay.
+     * The query must only read data that no other thread changes, such as a snapshot taken by the
+     * caller.
+     *
+     * @param query computes the result
+     */
+    public synchronized void submit(Callable<R> query) {
+        long current = generation.incrementAndGet();
+        long now = System.nanoTime();
+        boolean burst = pending != null && now - lastSubmitNanos < TimeUnit.MILLISECONDS.toNanos(delayMillis);
+        if (pending != null) {
+            pending.cancel(true);
+        }
+        lastSubmitNanos = now;
+        pending = worker.schedule(() -> run(current, query), burst ? delayMillis : 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Hands a partial result of the running query to the consumer, e.g. the matches found in the
+     * first part of a long scan, so they show before the scan ends. Like a final result, it is
+     * dropped if the query has been superseded by the time it would be delivered. Call only from
+     * within a query.
+     *
+     * @param partial result so far; must not be changed afterwards
+     */
+    public void offer(R partial) {
+        deliver(running, partial);
+    }
+
+    /**
+     * Drops the pending or running query, if any, without starting a new one.
+     */
+    public synchronized void cancel() {
+        generation.incrementAndGet();
+        if (pending != null) {
+            pending.cancel(true);
+            pending = null;
+        }
+    }
+
+    /**
+     * Throws if the running query has been superseded. Call from within a query, e.g. every few
+     * thousand items of a scan.
+     *
+     * @throws CancellationException if the query should stop
+     */
+    public static void checkCancelled() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException();
+        }
+    }
+
+    @Override
+    public void close() {
+        cancel();
+        worker.shutdownNow();
+    }
+
+    private void run(long current, Callable<R> query) {
+        running = current;
+        R result;
+        try {
+            result = query.call();
+        } catch (CancellationException | InterruptedException e) {
+            return;
+        } catch (Exception e) {
+            deliverOn.execute(() -> {
+                if (generation.get() == current) {
+                    onError.accept(e);
+                }
+            });
+            return;
+        }
+        deliver(current, result);
+    }
+
+    private void deliver(long current, R result) {
+        deliverOn.execute(() -> {
+            if (generation.get() == current) {
+                onResult.accept(result);
+            }
+        });
+    }
+}
@@ -0,0 +1,94 @@
+package ubersuper.utils;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Deduplicating pool of strings read from storage.
+ * <p>
+ * Data files repeat the same descriptions, names and contact details on many lines, and each
+ * read would otherwise keep its own copy. {@link #intern(String)} returns one canonical instance
+ * per distinct value instead. Unlike {@link String#intern()}, the pool belongs to a single list
+ * and is collected together with it.
+ * <p>
+ * The pool holds its strings weakly: a value stays pooled only while some item of the list still
+ * uses it, so the strings of deleted items, or of lines replaced by a reload, are not kept alive
+ * and the pool never outgrows the list.
+ * <p>
+ * The pool also estimates the heap it saved by the latest load or reload (see
+ * {@link #resetCounts()}), for the start-up summary.
+ * Not thread-safe; it is only used while (re)loading a list.
+ */
+public class InternPool {
+    /** Each value maps to a weak reference to itself, so neither side keeps it alive. */
+    private final Map<String, WeakReference<String>> pool = new WeakHashMap<>();
+    private int duplicates;
+    private long savedBytes;
+
+    /**
+     * Returns the pooled instance equal to {@code s}, adding {@code s} if it is new.
+     *
+     * @param s string just read
+     * @return canonical instance, or {@code null} if {@code s} is {@code null}
+     */
+    public String intern(String s) {
+        if (s == null) {
+            return null;
+        }
+        WeakReference<String> pooled = pool.get(s);
+        String canonical = pooled == null ? null : pooled.get();
+        if (canonical == null) {
+            pool.put(s, new WeakReference<>(s));
+            return s;
+        }
+        duplicates++;
+        savedBytes += footprint(s);
+        return canonical;
+    }
+
+    /**
+     * Starts counting afresh, e.g. before a reload, so the counts describe that (re)load only.
+     */
+    public void resetCounts() {
+        duplicates = 0;
+        savedBytes = 0;
+    }
+
+    /**
+     * Returns the number of distinct values pooled and still in use.
+     */
+    public int size() {
+        return pool.size();
+    }
+
+    /**
+     * Returns how many strings were replaced by an existing instance.
+     */
+    public int duplicates() {
+        return duplicates;
+    }
+
+    /**
+     * Returns the estimated heap saved by sharing, in bytes.
+     */
+    public long savedBytes() {
+        return savedBytes;
+    }
+
+    /**
+     * Estimates the heap taken by one string on a 64-bit JVM with compressed pointers: a 24-byte
+     * {@code String} plus its backing array (16-byte header, one byte per char if all chars are
+     * Latin-1, else two), padded to 8 bytes.
+     */
+    private static long footprint(String s) {
+        int bytesPerChar = 1;
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        return 24 + ((16L + (long) s.length() * bytesPerChar + 7) & ~7L);
+    }
+}
@@ -0,0 +1,97 @@
+package ubersuper.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, thread-safe least-recently-used cache.
+ * <p>
+ * Backed by an access-ordered {@link LinkedHashMap}: every {@link #get(Object)} hit moves the entry
+ * to the young end, and inserting beyond {@link #capacity()} evicts the eldest entry. All access is
+ * synchronized on the cache, which is fine for the short lookups it is used for.
+ * <p>
+ * Hits and misses are counted so the capacity can be sized from real workloads.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class LruCache<K, V> {
+    private final int capacity;
+    private final LinkedHashMap<K, V> entries;
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param capacity maximum number of entries kept (at least 1)
+     */
+    public LruCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > LruCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Looks up {@code key}, counting the lookup as a hit or a miss.
+     *
+     * @param key key to look up
+     * @return the cached value, or {@code null} if absent
+     */
+    public synchronized V get(K key) {
+        V value = entries.get(key);
+        if (value == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return value;
+    }
+
+    /**
+     * Stores {@code value} under {@code key}, evicting the least recently used entry if full.
+     *
+     * @param key   key
+     * @param value value (non-null)
+     */
+    public synchronized void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    /**
+     * Removes all entries and resets the counters.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d/%d entries, %d hits, %d misses", entries.size(), capacity, hits, misses);
+    }
+}
@@ -2,11 +2,14 @@ package ubersuper.utils;
 
 import ubersuper.clients.Client;
 import ubersuper.exceptions.UberExceptions;
+import ubersuper.utils.command.CommandArgs;
+import ubersuper.utils.command.CommandTable;
 import ubersuper.utils.command.CommandType;
 import ubersuper.utils.ui.Ui;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 
@@ -39,13 +42,31 @@ import java.time.format.DateTimeParseException;
  * is thrown with a helpful message.</p>
  */
 public class Parser {
+    /** Result of {@link #recognise(String)} for input no supported format accepts. */
+    private static final LocalDateTime INVALID = LocalDateTime.MAX;
+    /** Result of {@link #recognise(String)} for a shape it does not handle itself. */
+    private static final LocalDateTime UNRECOGNISED = LocalDateTime.MIN;
+
+    private static final DateTimeFormatter SLASH_DATE_TIME = DateTimeFormatter.ofPattern("d/M/uuuu HHmm");
+    private static final DateTimeFormatter SLASH_DATE = DateTimeFormatter.ofPattern("d/M/uuuu");
+    private static final DateTimeFormatter DASH_DATE_TIME = DateTimeFormatter.ofPattern("d-M-uuuu HHmm");
+    private static final DateTimeFormatter DASH_DATE = DateTimeFormatter.ofPattern("d-M-uuuu");
+
+    /**
+     * Parsed date/time values keyed by their trimmed text, shared by command parsing
+     * ({@link #parseDateTime(String)}) and storage loading ({@link #parseIsoDateTime(String)}).
+     * Only successful parses are cached.
+     */
+    private static final LruCache<String, LocalDateTime> DATE_TIMES = new LruCache<>(1024);
+
 
     /**
      * Parses the user's input into a {@link CommandType}.
      * <p><strong>Rules:</strong></p>
      * <ul>
-     *   <li>Extracts the first whitespace-delimited token and lower-cases it.</li>
-     *   <li>Performs exact token match against known commands (no prefix/substring match).</li>
+     *   <li>Reads the first whitespace-delimited token in place, case-insensitively.</li>
+     *   <li>Performs exact token match against known commands via {@link CommandTable}
+     *   (no prefix/substring match, no allocation).</li>
      *   <li>Returns CommandType.UNKNOWN if the token does not match any command,
      *   or if input is null/blank.</li>
      * </ul>
@@ -54,33 +75,217 @@ public class Parser {
      * @return matching {@link CommandType} or CommandType.UNKNOWN if none
      */
     public static CommandType fromInput(String input) {
+        return CommandTable.command(CommandTable.dispatch(input));
+    }
+
+    /**
+     * Reads the 1-based item number that follows the command word, e.g. {@code 3} in {@code "mark 3"}.
+     * <p>
+     * The number is read straight from the characters by {@link CommandArgs#index(CharSequence)},
+     * without tokenizing, splitting or copying the input.
+     *
+     * @param input full user input line
+     * @return the item number as typed (not range-checked)
+     * @throws UberExceptions if the argument is missing or not a whole number
+     */
+    public static int parseIndex(CharSequence input) throws UberExceptions {
+        return CommandArgs.index(input);
+    }
+
+    /**
+     * Parses a date/time string into a {@link LocalDateTime}.
+     * <p>
+     * Accepts the formats listed in the class Javadoc. If only a date is supplied, the time component
+     * is set to midnight. The common shapes are recognised in a single pass by
+     * {@link #recognise(String)}, without regexes, formatters or exceptions; anything unusual
+     * (e.g., fractional seconds, {@code 2400}) falls back to {@link #parseDateTimeCascade(String)},
+     * so the accepted inputs and results are exactly those of the cascade.
+     * <p>
+     * Successful results are memoised in a bounded {@link LruCache} keyed by the trimmed text,
+     * since imports and replays parse the same few dates over and over.
+     *
+     * @param raw user input containing a date/time
+     * @return a {@link LocalDateTime} representing the parsed moment
+     * @throws UberExceptions if the input cannot be parsed by any supported format
+     */
+    public static LocalDateTime parseDateTime(String raw) throws UberExceptions {
+        String s = raw.trim();
+        LocalDateTime dt = DATE_TIMES.get(s);
+        if (dt != null) {
+            return dt;
+        }
+        dt = recognise(s);
+        if (dt == INVALID) {
+            throw invalidDateTime(raw);
+        }
+        if (dt == UNRECOGNISED) {
+            dt = parseDateTimeCascade(raw);
+        }
+        DATE_TIMES.put(s, dt);
+        return dt;
+    }
 
-        if (input == null || input.isBlank()) {
-            return CommandType.UNKNOWN;
+    /**
+     * Parses a stored ISO-8601 local date-time, e.g. {@code 2019-12-02T18:00}, exactly as
+     * {@link LocalDateTime#parse(CharSequence)} does.
+     * <p>
+     * Text containing {@code 'T'} goes through the shared cache: for such text
+     * {@link #parseDateTime(String)} accepts exactly what {@code LocalDateTime.parse} accepts, with the
+     * same result, so the two can share entries. Other text is parsed directly, so storage never
+     * accepts a date-only value that the command parser happened to cache.
+     *
+     * @param text trimmed ISO date-time text
+     * @return the parsed value
+     * @throws DateTimeParseException if the text is not an ISO local date-time
+     */
+    public static LocalDateTime parseIsoDateTime(String text) throws DateTimeParseException {
+        if (text.indexOf('T') < 0) {
+            return LocalDateTime.parse(text);
         }
-        String[] parts = input.strip().split("\\s+", 2);
-        String head = parts[0].toLowerCase();
+        LocalDateTime dt = DATE_TIMES.get(text);
+        if (dt == null) {
+            dt = LocalDateTime.parse(text);
+            DATE_TIMES.put(text, dt);
+        }
+        return dt;
+    }
 
-        for (CommandType c : CommandType.values()) {
-            if (head.equals(c.getKeyword())) {
-                return c;
+    /**
+     * Returns the cache shared by {@link #parseDateTime(String)} and {@link #parseIsoDateTime(String)},
+     * e.g. to read its hit and miss counters.
+     *
+     * @return the shared date/time cache
+     */
+    public static LruCache<String, LocalDateTime> dateTimeCache() {
+        return DATE_TIMES;
+    }
+
+    /**
+     * Single-pass recogniser for the common input shapes:
+     * <ul>
+     *   <li>{@code yyyy-MM-dd}, {@code yyyy-MM-dd HH:mm}, {@code yyyy-MM-dd'T'HH:mm[:ss]} (ISO, strict),</li>
+     *   <li>{@code d/M/yyyy [HHmm]} and {@code d-M-yyyy [HHmm]} (day clamped to the month's length,
+     *       as {@link java.time.format.ResolverStyle#SMART} does).</li>
+     * </ul>
+     *
+     * @param s trimmed input
+     * @return the parsed value, {@link #INVALID}, or {@link #UNRECOGNISED}
+     */
+    private static LocalDateTime recognise(String s) {
+        int n = s.length();
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (!isDigit(c) && c != '-' && c != '/' && c != ':' && c != 'T' && c != ' ' && c != '.' && c != '+') {
+                return INVALID;
+            }
+        }
+
+        // ISO: yyyy-MM-dd[(T| )HH:mm[:ss]]
+        if (n >= 10 && digits(s, 0, 4) && s.charAt(4) == '-' && digits(s, 5, 2)
+                && s.charAt(7) == '-' && digits(s, 8, 2)) {
+            int year = number(s, 0, 4);
+            int month = number(s, 5, 2);
+            int day = number(s, 8, 2);
+            if (n == 10) {
+                return isValidDate(year, month, day) ? LocalDateTime.of(year, month, day, 0, 0) : INVALID;
+            }
+            char sep = s.charAt(10);
+            boolean hasMinutes = n >= 16 && digits(s, 11, 2) && s.charAt(13) == ':' && digits(s, 14, 2);
+            boolean hasSeconds = n == 19 && s.charAt(16) == ':' && digits(s, 17, 2);
+            if (!hasMinutes || (sep != 'T' && sep != ' ') || (n != 16 && !(sep == 'T' && hasSeconds))) {
+                return UNRECOGNISED;
+            }
+            int hour = number(s, 11, 2);
+            int minute = number(s, 14, 2);
+            int second = hasSeconds ? number(s, 17, 2) : 0;
+            if (!isValidDate(year, month, day) || hour > 23 || minute > 59 || second > 59) {
+                return INVALID;
             }
+            return LocalDateTime.of(year, month, day, hour, minute, second);
+        }
+
+        // d/M/yyyy [HHmm] or d-M-yyyy [HHmm]
+        int i = 0;
+        while (i < n && i < 2 && isDigit(s.charAt(i))) {
+            i++;
+        }
+        int dayLen = i;
+        if (dayLen == 0 || i >= n || (s.charAt(i) != '/' && s.charAt(i) != '-')) {
+            return UNRECOGNISED;
+        }
+        char sep = s.charAt(i++);
+        int monthStart = i;
+        while (i < n && i - monthStart < 2 && isDigit(s.charAt(i))) {
+            i++;
+        }
+        int monthLen = i - monthStart;
+        if (monthLen == 0 || i + 5 > n || s.charAt(i) != sep || !digits(s, i + 1, 4)) {
+            return UNRECOGNISED;
         }
-        return CommandType.UNKNOWN;
+        int yearStart = i + 1;
+        int end = yearStart + 4;
+        boolean hasTime = n == end + 5 && s.charAt(end) == ' ' && digits(s, end + 1, 4);
+        if (n != end && !hasTime) {
+            return UNRECOGNISED;
+        }
+        int day = number(s, 0, dayLen);
+        int month = number(s, monthStart, monthLen);
+        int year = number(s, yearStart, 4);
+        int hour = hasTime ? number(s, end + 1, 2) : 0;
+        int minute = hasTime ? number(s, end + 3, 2) : 0;
+        if (hour > 23 || minute > 59) {
+            return UNRECOGNISED;
+        }
+        if (month < 1 || month > 12 || day < 1 || day > 31) {
+            return INVALID;
+        }
+        day = Math.min(day, YearMonth.of(year, month).lengthOfMonth());
+        return LocalDateTime.of(year, month, day, hour, minute);
     }
 
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean digits(String s, int from, int count) {
+        if (from + count > s.length()) {
+            return false;
+        }
+        for (int i = from; i < from + count; i++) {
+            if (!isDigit(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int number(String s, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            value = value * 10 + (s.charAt(i) - '0');
+        }
+        return value;
+    }
+
+    private static boolean isValidDate(int year, int month, int day) {
+        return month >= 1 && month <= 12 && day >= 1 && day <= YearMonth.of(year, month).lengthOfMonth();
+    }
+
+    private static UberExceptions invalidDateTime(String raw) {
+        return new UberExceptions("I couldn't understand the date/time: \""
+                + raw
+                + "\".\n" + "Try formats like: 2019-12-02, 2019-12-02 18:00, 2/12/2019 1800.");
+    }
 
     /**
-     * Parses a date/time string into a {@link LocalDateTime}.
-     * <p>
-     * The method tries multiple formats (listed in the class Javadoc) in a sensible order.
-     * If only a date is supplied, the time component is set to midnight.
+     * Parses a date/time by trying each supported format in turn (the reference behaviour
+     * {@link #parseDateTime(String)} must match).
      *
      * @param raw user input containing a date/time
      * @return a {@link LocalDateTime} representing the parsed moment
      * @throws UberExceptions if the input cannot be parsed by any supported format
      */
-    public static LocalDateTime parseDateTime(String raw) throws UberExceptions {
+    static LocalDateTime parseDateTimeCascade(String raw) throws UberExceptions {
         String s = raw.trim();
 
         // 1) ISO date-time: 2019-12-02T18:00 (or "2019-12-02 18:00")
@@ -104,39 +309,33 @@ public class Parser {
 
         // 3) dd/MM/yyyy HHmm   e.g. 2/12/2019 1800
         try {
-            DateTimeFormatter f = DateTimeFormatter.ofPattern("d/M/uuuu HHmm");
-            return LocalDateTime.parse(s, f);
+            return LocalDateTime.parse(s, SLASH_DATE_TIME);
         } catch (DateTimeParseException ignore) {
             //ignore
         }
 
         // 4) dd/MM/yyyy        (00:00)
         try {
-            DateTimeFormatter f = DateTimeFormatter.ofPattern("d/M/uuuu");
-            return LocalDate.parse(s, f).atStartOfDay();
+            return LocalDate.parse(s, SLASH_DATE).atStartOfDay();
         } catch (DateTimeParseException ignore) {
             //ignore
         }
 
         // 5) d-M-uuuu HHmm
         try {
-            DateTimeFormatter f = DateTimeFormatter.ofPattern("d-M-uuuu HHmm");
-            return LocalDateTime.parse(s, f);
+            return LocalDateTime.parse(s, DASH_DATE_TIME);
         } catch (DateTimeParseException ignore) {
             //ignore
         }
 
         // 6) d-M-uuuu (00:00)
         try {
-            DateTimeFormatter f = DateTimeFormatter.ofPattern("d-M-uuuu");
-            return LocalDate.parse(s, f).atStartOfDay();
+            return LocalDate.parse(s, DASH_DATE).atStartOfDay();
         } catch (DateTimeParseException ignore) {
             //ignore
         }
 
-        throw new UberExceptions("I couldn't understand the date/time: \""
-                + raw
-                + "\".\n" + "Try formats like: 2019-12-02, 2019-12-02 18:00, 2/12/2019 1800.");
+        throw invalidDateTime(raw);
     }
 
 
@@ -148,27 +347,27 @@ public class Parser {
      * @return a string representing the client's details
      * @throws UberExceptions if the input cannot be parsed by any supported format
      */
-    public static Client parseAddClient(String raw) throws UberExceptions{
-            String[] parts = raw.split("/");
-            if (parts.length < 2) {
-                throw new UberExceptions("Use format: addclient <name> /phone <phone number> /email <email address>");
-            } else if (parts.length < 3) {
-                throw new UberExceptions("Use format: addclient <name> /phone <phone number> /email <email address>");
-            }
-
-            String name = parts[0].replaceFirst("addclient", "");
-            String phonePart = parts[1].trim(); // "phone ..."
-            String emailPart = parts[2].trim(); // "email ..."
-            if (name.isEmpty()) {
-                throw new UberExceptions("Please give your client a name");
-            }
-            //ensure correct formatting
-            if (!phonePart.toLowerCase().startsWith("phone") || !emailPart.toLowerCase().startsWith("email")) {
-                throw new UberExceptions("Use format: addclient <name> /phone <phone number> /email <email address>");
-            }
-            String phone = phonePart.replaceFirst("phone", "").trim();
-            String email = emailPart.replaceFirst("email", "").trim();
+    public static Client parseAddClient(String raw) throws UberExceptions {
+        return parseAddClient(raw, CommandTable.dispatch(raw));
+    }
 
-            return new Client(name, phone, email);
+    /**
+     * Same as {@link #parseAddClient(String)} for a line the caller has already dispatched.
+     *
+     * @param raw        user input line
+     * @param dispatched {@link CommandTable#dispatch(CharSequence)} of {@code raw}
+     * @return the client described by the line
+     * @throws UberExceptions if the phone, email or name is missing
+     */
+    public static Client parseAddClient(String raw, int dispatched) throws UberExceptions {
+        String usage = "Use format: addclient <name> /phone <phone number> /email <email address>";
+        CommandArgs args = CommandArgs.parse(raw, dispatched, "phone", "email");
+        String phone = args.require("phone", usage);
+        String email = args.require("email", usage);
+        String name = args.body();
+        if (name.isEmpty()) {
+            throw new UberExceptions("Please give your client a name");
+        }
+        return new Client(name, phone, email);
     }
 }
@@ -0,0 +1,34 @@
+package ubersuper.utils;
+
+/**
+ * String helpers shared by the search views.
+ */
+public final class Strings {
+
+    private Strings() {
+    }
+
+    /**
+     * Case-insensitive {@code contains}, comparing one {@code char} at a time with
+     * {@link Character#toLowerCase(char)}, so neither argument is copied or lower-cased first.
+     *
+     * @param haystack text to search
+     * @param needle   text to look for
+     * @return {@code true} if found
+     */
+    public static boolean containsIgnoreCase(CharSequence haystack, CharSequence needle) {
+        int k = needle.length();
+        outer:
+        for (int i = 0, last = haystack.length() - k; i <= last; i++) {
+            for (int j = 0; j < k; j++) {
+                char a = haystack.charAt(i + j);
+                char b = needle.charAt(j);
+                if (a != b && Character.toLowerCase(a) != Character.toLowerCase(b)) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
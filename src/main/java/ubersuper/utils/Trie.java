@@ -0,0 +1,161 @@
+package ubersuper.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Case-insensitive prefix tree of words, for completing what the user has started typing.
+ * <p>
+ * Words are counted, so the same word (e.g. two clients with one name) can be added twice and
+ * stays until removed twice. A word keeps the spelling it was first added with. Every node knows
+ * how many words lie below it, and empty branches are pruned on removal, so
+ * {@link #complete(String, int)} only walks nodes that lead to a word: its cost depends on the
+ * prefix length and the number of results, not on the number of words stored.
+ * <p>
+ * Not thread-safe; use it from one thread.
+ */
+public class Trie {
+    private final Node root = new Node();
+
+    /**
+     * Adds one occurrence of {@code word}.
+     *
+     * @param word word to add; blank words are ignored
+     */
+    public void add(String word) {
+        if (word == null || word.isBlank()) {
+            return;
+        }
+        Node node = root;
+        node.below++;
+        for (int i = 0; i < word.length(); i++) {
+            node = node.childOrAdd(Character.toLowerCase(word.charAt(i)));
+            node.below++;
+        }
+        if (node.count++ == 0) {
+            node.word = word;
+        }
+    }
+
+    /**
+     * Removes one occurrence of {@code word}, ignoring case.
+     *
+     * @param word word to remove
+     * @return {@code true} if the word was present
+     */
+    public boolean remove(String word) {
+        if (word == null || word.isBlank()) {
+            return false;
+        }
+        Node node = find(word);
+        if (node == null || node.count == 0) {
+            return false;
+        }
+        node = root;
+        node.below--;
+        for (int i = 0; i < word.length(); i++) {
+            char c = Character.toLowerCase(word.charAt(i));
+            Node child = node.child(c);
+            if (--child.below == 0) {
+                node.removeChild(c);
+                return true;
+            }
+            node = child;
+        }
+        if (--node.count == 0) {
+            node.word = null;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of words stored, counting repeats.
+     */
+    public int size() {
+        return root.below;
+    }
+
+    /**
+     * Returns up to {@code limit} distinct words starting with {@code prefix}, ignoring case, in
+     * alphabetical order of their lower-case form.
+     *
+     * @param prefix typed prefix; empty matches every word
+     * @param limit  maximum number of words returned
+     * @return matching words as they were added
+     */
+    public List<String> complete(String prefix, int limit) {
+        List<String> words = new ArrayList<>(Math.min(limit, 16));
+        Node node = find(prefix);
+        if (node != null) {
+            collect(node, limit, words);
+        }
+        return words;
+    }
+
+    private Node find(String prefix) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(Character.toLowerCase(prefix.charAt(i)));
+        }
+        return node;
+    }
+
+    private static void collect(Node node, int limit, List<String> words) {
+        if (node.word != null && words.size() < limit) {
+            words.add(node.word);
+        }
+        for (int i = 0; i < node.size && words.size() < limit; i++) {
+            collect(node.children[i], limit, words);
+        }
+    }
+
+    /**
+     * A trie node; children are kept in arrays sorted by key for binary search and ordered walks.
+     */
+    private static final class Node {
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private int size;
+        /** Number of words ending here, and the spelling they were first added with. */
+        private int count;
+        private String word;
+        /** Number of words ending here or below, counting repeats. */
+        private int below;
+
+        Node child(char key) {
+            int i = Arrays.binarySearch(keys, 0, size, key);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node childOrAdd(char key) {
+            int i = Arrays.binarySearch(keys, 0, size, key);
+            if (i >= 0) {
+                return children[i];
+            }
+            i = -i - 1;
+            if (size == keys.length) {
+                int capacity = Math.max(2, size * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, i, keys, i + 1, size - i);
+            System.arraycopy(children, i, children, i + 1, size - i);
+            Node child = new Node();
+            keys[i] = key;
+            children[i] = child;
+            size++;
+            return child;
+        }
+
+        void removeChild(char key) {
+            int i = Arrays.binarySearch(keys, 0, size, key);
+            System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+            System.arraycopy(children, i + 1, children, i, size - i - 1);
+            children[--size] = null;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package ubersuper.utils.change;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+
+/**
+ * Publishes {@link ListChange} events for a mutable list through {@link Flow.Publisher}.
+ * <p>
+ * Publishing is split in two steps so that a mutator can record changes while it holds its
+ * list's lock and deliver them after releasing it: {@link #publish(ChangeType, int, Object)} only
+ * queues a change, and {@link #flush()} hands every queued change to the subscribers, in the
+ * order they were queued.
+ * <p>
+ * Each subscriber gets its own bounded buffer of {@code bufferCapacity} events and pulls
+ * them with {@link Flow.Subscription#request(long)}. If a subscriber falls a full buffer behind,
+ * the flushing thread blocks in {@link #flush()} until it catches up, so no change is ever
+ * dropped, and since that happens outside the list's lock, readers of the list are never held up
+ * by a slow subscriber. When nobody is subscribed, publishing is a single field check.
+ *
+ * @param <T> element type of the list
+ */
+public class ChangeFeed<T> implements Flow.Publisher<ListChange<T>> {
+    private final SubmissionPublisher<ListChange<T>> publisher;
+    private final Queue<ListChange<T>> queued = new ConcurrentLinkedQueue<>();
+    /** Held while flushing, so changes queued by different threads are submitted in queue order. */
+    private final Object flushing = new Object();
+
+    /**
+     * Creates a feed with the default per-subscriber buffer ({@link Flow#defaultBufferSize()}).
+     */
+    public ChangeFeed() {
+        this(Flow.defaultBufferSize());
+    }
+
+    /**
+     * Creates a feed with the given per-subscriber buffer.
+     *
+     * @param bufferCapacity maximum number of undelivered events held per subscriber
+     */
+    public ChangeFeed(int bufferCapacity) {
+        this.publisher = new SubmissionPublisher<>(ForkJoinPool.commonPool(), bufferCapacity);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ListChange<T>> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+
+    /**
+     * Queues a change for all current subscribers; it is delivered by the next {@link #flush()}.
+     *
+     * @param type  kind of mutation
+     * @param index 0-based position of the item
+     * @param item  affected item
+     */
+    public void publish(ChangeType type, int index, T item) {
+        if (publisher.isClosed() || !publisher.hasSubscribers()) {
+            return;
+        }
+        queued.add(new ListChange<>(type, index, item));
+    }
+
+    /**
+     * Submits every queued change, oldest first. Several threads may flush at once; the changes
+     * are still submitted in the order they were queued.
+     */
+    public void flush() {
+        if (queued.isEmpty()) {
+            return;
+        }
+        synchronized (flushing) {
+            for (ListChange<T> change = queued.poll(); change != null; change = queued.poll()) {
+                if (!publisher.isClosed()) {
+                    publisher.submit(change);
+                }
+            }
+        }
+    }
+
+    /**
+     * Completes all subscriptions; later calls to {@link #publish} are ignored.
+     */
+    public void close() {
+        publisher.close();
+    }
+}
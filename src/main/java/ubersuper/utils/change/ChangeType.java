@@ -0,0 +1,11 @@
+package ubersuper.utils.change;
+
+/**
+ * Kinds of mutations published on a {@link ChangeFeed}.
+ */
+public enum ChangeType {
+    ADDED,
+    REMOVED,
+    MARKED,
+    UNMARKED
+}
@@ -0,0 +1,50 @@
+package ubersuper.utils.change;
+
+/**
+ * A single mutation of a list, as delivered to subscribers of a {@link ChangeFeed}.
+ * <p>
+ * Carries:
+ * <ul>
+ *   <li>{@code type}: what happened to the item,</li>
+ *   <li>{@code index}: 0-based position of the item at the time of the change
+ *       (for {@link ChangeType#REMOVED}, the position it was removed from),</li>
+ *   <li>{@code item}: the affected item.</li>
+ * </ul>
+ *
+ * @param <T> element type of the list
+ */
+public class ListChange<T> {
+    private final ChangeType type;
+    private final int index;
+    private final T item;
+
+    /**
+     * Creates a {@code ListChange}.
+     *
+     * @param type  kind of mutation
+     * @param index 0-based position of the item
+     * @param item  affected item (non-null)
+     */
+    public ListChange(ChangeType type, int index, T item) {
+        this.type = type;
+        this.index = index;
+        this.item = item;
+    }
+
+    public ChangeType type() {
+        return type;
+    }
+
+    public int index() {
+        return index;
+    }
+
+    public T item() {
+        return item;
+    }
+
+    @Override
+    public String toString() {
+        return type + "@" + index + ": " + item;
+    }
+}
@@ -0,0 +1,300 @@
+package ubersuper.utils.change;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * An {@link ArrayList} that publishes every mutation on a {@link ChangeFeed} and counts them in a
+ * {@link #version()}.
+ * <p>
+ * All mutations funnel into {@link #add(int, Object)}, {@link #remove(int)} and
+ * {@link #set(int, Object)}, which publish one {@link ListChange} each ({@code set} publishes a
+ * removal and an addition). The bulk operations ({@code addAll}, {@code removeIf},
+ * {@code removeAll}, {@code retainAll}, {@code removeRange}, {@code replaceAll}, {@code sort},
+ * {@code clear}) are rewritten on top of them, because {@code ArrayList} implements them without
+ * going through the single-element methods. Iterators mutate through the same methods.
+ * {@link #subList(int, int)} is read-only, as {@code ArrayList}'s sub-lists also bypass them.
+ * <p>
+ * Subclasses learn of every element entering or leaving the list through
+ * {@link #added(int, Object)} and {@link #removed(int, Object)}, e.g. to keep an index in step.
+ * <p>
+ * Every mutation holds the list's write lock. Code that needs a consistent view across several
+ * calls, or several mutations applied as one, goes through {@link #read(Supplier)} and
+ * {@link #write(Supplier)}; plain {@code get}/{@code size} calls take no lock. Changes are queued
+ * on the feed while the lock is held and delivered once the outermost write lock is released, so
+ * a subscriber that falls behind never stalls readers or other writers of the list.
+ *
+ * @param <T> element type
+ */
+public abstract class PublishingList<T> extends ArrayList<T> {
+    private final ChangeFeed<T> changes = new ChangeFeed<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    /** Bumped on every mutation; see {@link #version()}. */
+    private volatile long version;
+
+    /**
+     * Returns the feed of mutations applied to this list.
+     *
+     * @return publisher of one {@link ListChange} per change, in order
+     */
+    public Flow.Publisher<ListChange<T>> changes() {
+        return changes;
+    }
+
+    /**
+     * Returns a counter that increases on every mutation, so a result computed from this list
+     * stays valid exactly as long as the version it was computed at.
+     *
+     * @return current version of this list
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Runs {@code query} holding the read lock, so no mutation happens while it runs.
+     *
+     * @param query code that reads this list
+     * @param <R>   result type
+     * @return the query result
+     */
+    public <R> R read(Supplier<R> query) {
+        lock.readLock().lock();
+        try {
+            return query.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs {@code action} holding the write lock, so readers never see it half done. The lock is
+     * reentrant, and the thread holding it may also {@link #read(Supplier)}.
+     *
+     * @param action code that mutates this list
+     * @param <R>    result type
+     * @return the action's result
+     */
+    public <R> R write(Supplier<R> action) {
+        lock.writeLock().lock();
+        try {
+            return action.get();
+        } finally {
+            unlockAndFlush();
+        }
+    }
+
+    /**
+     * Releases one hold of the write lock and, once this thread holds it no more, delivers the
+     * changes queued under it.
+     */
+    private void unlockAndFlush() {
+        lock.writeLock().unlock();
+        if (!lock.isWriteLockedByCurrentThread()) {
+            changes.flush();
+        }
+    }
+
+    /**
+     * Counts a mutation and queues it on the feed; it is delivered once the write lock is released,
+     * or right away if the caller does not hold it.
+     *
+     * @param type  kind of mutation
+     * @param index 0-based position of the item
+     * @param item  affected item
+     */
+    protected void publish(ChangeType type, int index, T item) {
+        version++;
+        changes.publish(type, index, item);
+        if (!lock.isWriteLockedByCurrentThread()) {
+            changes.flush();
+        }
+    }
+
+    /**
+     * Called after {@code item} entered the list, with the write lock held.
+     *
+     * @param index 0-based position of the added element
+     * @param item  the added element
+     */
+    protected void added(int index, T item) {
+    }
+
+    /**
+     * Called after {@code item} left the list, with the write lock held.
+     *
+     * @param index 0-based position the element was removed from
+     * @param item  the removed element
+     */
+    protected void removed(int index, T item) {
+    }
+
+    @Override
+    public boolean add(T item) {
+        add(size(), item);
+        return true;
+    }
+
+    @Override
+    public void add(int index, T item) {
+        lock.writeLock().lock();
+        try {
+            super.add(index, item);
+            added(index, item);
+            publish(ChangeType.ADDED, index, item);
+        } finally {
+            unlockAndFlush();
+        }
+    }
+
+    @Override
+    public T remove(int index) {
+        lock.writeLock().lock();
+        try {
+            T item = super.remove(index);
+            removed(index, item);
+            publish(ChangeType.REMOVED, index, item);
+            return item;
+        } finally {
+            unlockAndFlush();
+        }
+    }
+
+    @Override
+    public T set(int index, T item) {
+        lock.writeLock().lock();
+        try {
+            T old = super.set(index, item);
+            removed(index, old);
+            added(index, item);
+            publish(ChangeType.REMOVED, index, old);
+            publish(ChangeType.ADDED, index, item);
+            return old;
+        } finally {
+            unlockAndFlush();
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return write(() -> {
+            int index = indexOf(o);
+            if (index < 0) {
+                return false;
+            }
+            remove(index);
+            return true;
+        });
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends T> items) {
+        return addAll(size(), items);
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends T> items) {
+        Object[] toAdd = items.toArray();
+        return write(() -> {
+            for (int i = 0; i < toAdd.length; i++) {
+                @SuppressWarnings("unchecked") // the array holds the elements of a Collection<? extends T>
+                T item = (T) toAdd[i];
+                add(index + i, item);
+            }
+            return toAdd.length > 0;
+        });
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
+        Objects.requireNonNull(filter);
+        return write(() -> {
+            boolean changed = false;
+            for (int i = size() - 1; i >= 0; i--) {
+                if (filter.test(get(i))) {
+                    remove(i);
+                    changed = true;
+                }
+            }
+            return changed;
+        });
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> items) {
+        Objects.requireNonNull(items);
+        return removeIf(items::contains);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> items) {
+        Objects.requireNonNull(items);
+        return removeIf(item -> !items.contains(item));
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        write(() -> {
+            for (int i = toIndex - 1; i >= fromIndex; i--) {
+                remove(i);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void clear() {
+        removeRange(0, size());
+    }
+
+    @Override
+    public void replaceAll(UnaryOperator<T> operator) {
+        Objects.requireNonNull(operator);
+        write(() -> {
+            for (int i = 0; i < size(); i++) {
+                T old = get(i);
+                T replacement = operator.apply(old);
+                if (replacement != old) {
+                    set(i, replacement);
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Sorts the list, publishing a replacement for every position whose element moved.
+     */
+    @Override
+    @SuppressWarnings("unchecked") // the array holds this list's elements
+    public void sort(Comparator<? super T> comparator) {
+        write(() -> {
+            T[] sorted = (T[]) toArray();
+            Arrays.sort(sorted, comparator);
+            for (int i = 0; i < sorted.length; i++) {
+                if (get(i) != sorted[i]) {
+                    set(i, sorted[i]);
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Returns a read-only view of a range of this list.
+     */
+    @Override
+    public List<T> subList(int fromIndex, int toIndex) {
+        return Collections.unmodifiableList(super.subList(fromIndex, toIndex));
+    }
+}
@@ -0,0 +1,261 @@
+package ubersuper.utils.command;
+
+import ubersuper.exceptions.UberExceptions;
+
+import java.util.Arrays;
+
+/**
+ * Arguments of one command line, tokenized in a single pass.
+ * <p>
+ * A line has the shape {@code <command> <body> [/<flag> <value>]...}, e.g.
+ * {@code deadline return book /by 2/12/2019 1800 /client Alice}:
+ * <ul>
+ *   <li>the command word is matched by {@link CommandTable},</li>
+ *   <li>the body is the text up to the first flag ({@code return book}),</li>
+ *   <li>each flag's value runs up to the next flag ({@code 2/12/2019 1800}, {@code Alice}).</li>
+ * </ul>
+ * Only the flag names the caller asks for are recognised, and only where a {@code /} starts a word
+ * (at the start or after whitespace); optional spaces may follow it ({@code / by}). Any other
+ * {@code /}, as in dates or {@code and/or}, is ordinary text. Flag names match case-insensitively,
+ * and the last occurrence of a repeated flag wins.
+ * <p>
+ * Parsing only records offsets into the input; strings are cut out when a part is asked for.
+ */
+public final class CommandArgs {
+    private final String input;
+    private final CommandType command;
+    private final int bodyStart;
+    private final int bodyEnd;
+    private final String[] names;
+    /** Per recognised flag name: value start and end offsets, or {@code -1} if absent. */
+    private final int[] values;
+
+    private CommandArgs(String input, CommandType command, int bodyStart, int bodyEnd, String[] names,
+                        int[] values) {
+        this.input = input;
+        this.command = command;
+        this.bodyStart = bodyStart;
+        this.bodyEnd = bodyEnd;
+        this.names = names;
+        this.values = values;
+    }
+
+    /**
+     * Tokenizes {@code input}, recognising the given flag names.
+     *
+     * @param input full user input line
+     * @param flags flag names without the slash, e.g. {@code "by"}, {@code "client"}
+     * @return the tokenized arguments
+     */
+    public static CommandArgs parse(String input, String... flags) {
+        return parse(input, CommandTable.dispatch(input), flags);
+    }
+
+    /**
+     * Tokenizes {@code input}, which the caller has already dispatched, recognising the given flag
+     * names; the command word is not read again.
+     *
+     * @param input      full user input line
+     * @param dispatched {@link CommandTable#dispatch(CharSequence)} of {@code input}
+     * @param flags      flag names without the slash, e.g. {@code "by"}, {@code "client"}
+     * @return the tokenized arguments
+     */
+    public static CommandArgs parse(String input, int dispatched, String... flags) {
+        int n = input.length();
+        int[] values = new int[flags.length * 2];
+        Arrays.fill(values, -1);
+
+        int bodyEnd = -1;
+        int current = -1;
+        int valueStart = -1;
+        for (int i = CommandTable.argumentStart(dispatched); i < n; i++) {
+            if (input.charAt(i) != '/' || (i > 0 && !Character.isWhitespace(input.charAt(i - 1)))) {
+                continue;
+            }
+            int nameStart = i + 1;
+            while (nameStart < n && input.charAt(nameStart) == ' ') {
+                nameStart++;
+            }
+            int flag = flagAt(input, nameStart, flags);
+            if (flag < 0) {
+                continue;
+            }
+            if (current < 0) {
+                bodyEnd = i;
+            } else {
+                values[current * 2] = valueStart;
+                values[current * 2 + 1] = i;
+            }
+            current = flag;
+            valueStart = nameStart + flags[flag].length();
+            i = valueStart - 1;
+        }
+        if (current < 0) {
+            bodyEnd = n;
+        } else {
+            values[current * 2] = valueStart;
+            values[current * 2 + 1] = n;
+        }
+        return new CommandArgs(input, CommandTable.command(dispatched), CommandTable.argumentStart(dispatched),
+                bodyEnd, flags, values);
+    }
+
+    /**
+     * Returns the index of the flag name at {@code at}, or {@code -1}. A name must be followed by
+     * whitespace or the end of the input.
+     */
+    private static int flagAt(String input, int at, String[] flags) {
+        for (int f = 0; f < flags.length; f++) {
+            int end = at + flags[f].length();
+            if (input.regionMatches(true, at, flags[f], 0, flags[f].length())
+                    && (end == input.length() || Character.isWhitespace(input.charAt(end)))) {
+                return f;
+            }
+        }
+        return -1;
+    }
+
+    public CommandType command() {
+        return command;
+    }
+
+    /**
+     * Returns the trimmed text between the command word and the first flag (empty if none).
+     */
+    public String body() {
+        return trimmed(bodyStart, bodyEnd);
+    }
+
+    /**
+     * Returns the whitespace-separated words of the body.
+     */
+    public String[] words() {
+        String[] out = new String[4];
+        int n = 0;
+        int i = bodyStart;
+        while (i < bodyEnd) {
+            while (i < bodyEnd && Character.isWhitespace(input.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < bodyEnd && !Character.isWhitespace(input.charAt(i))) {
+                i++;
+            }
+            if (i > start) {
+                if (n == out.length) {
+                    out = Arrays.copyOf(out, n * 2);
+                }
+                out[n++] = input.substring(start, i);
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /**
+     * Reads the body as a 1-based item number, e.g. {@code 3} in {@code "mark 3"}, without copying it.
+     *
+     * @return the item number as typed (not range-checked)
+     * @throws UberExceptions if the body is missing or not a whole number
+     */
+    public int index() throws UberExceptions {
+        return index(input, bodyStart, bodyEnd);
+    }
+
+    /**
+     * Reads the 1-based item number that follows the command word of {@code input}, like
+     * {@link #index()} on a line without flags, but straight from the characters: nothing is
+     * tokenized or allocated.
+     *
+     * @param input full user input line, e.g. {@code "mark 3"}
+     * @return the item number as typed (not range-checked)
+     * @throws UberExceptions if the number is missing or not a whole number
+     */
+    public static int index(CharSequence input) throws UberExceptions {
+        return index(input, CommandTable.dispatch(input));
+    }
+
+    /**
+     * Same as {@link #index(CharSequence)} for a line the caller has already dispatched.
+     *
+     * @param input      full user input line
+     * @param dispatched {@link CommandTable#dispatch(CharSequence)} of {@code input}
+     * @return the item number as typed (not range-checked)
+     * @throws UberExceptions if the number is missing or not a whole number
+     */
+    public static int index(CharSequence input, int dispatched) throws UberExceptions {
+        return index(input, CommandTable.argumentStart(dispatched), input.length());
+    }
+
+    private static int index(CharSequence input, int from, int to) throws UberExceptions {
+        int i = from;
+        int value = 0;
+        int digits = 0;
+        for (; i < to && input.charAt(i) >= '0' && input.charAt(i) <= '9'; i++, digits++) {
+            value = value * 10 + (input.charAt(i) - '0');
+            if (digits > 8) {
+                throw new UberExceptions("There's no such item in the list");
+            }
+        }
+        while (i < to && Character.isWhitespace(input.charAt(i))) {
+            i++;
+        }
+        if (digits == 0 || i != to) {
+            throw new UberExceptions("Please give the item number, e.g. 'mark 2'");
+        }
+        return value;
+    }
+
+    /**
+     * Returns whether {@code flag} was given (possibly with an empty value).
+     *
+     * @param flag one of the flag names passed to {@link #parse(String, String...)}
+     */
+    public boolean has(String flag) {
+        return values[slot(flag)] >= 0;
+    }
+
+    /**
+     * Returns the trimmed value of {@code flag}, or {@code null} if it was not given.
+     *
+     * @param flag one of the flag names passed to {@link #parse(String, String...)}
+     */
+    public String value(String flag) {
+        int s = slot(flag);
+        return values[s] < 0 ? null : trimmed(values[s], values[s + 1]);
+    }
+
+    /**
+     * Returns the value of {@code flag}, insisting that it was given and is not blank.
+     *
+     * @param flag  one of the flag names passed to {@link #parse(String, String...)}
+     * @param usage message for the error if it is missing
+     * @return the trimmed, non-empty value
+     * @throws UberExceptions with {@code usage} if the flag is missing or blank
+     */
+    public String require(String flag, String usage) throws UberExceptions {
+        String v = value(flag);
+        if (v == null || v.isEmpty()) {
+            throw new UberExceptions(usage);
+        }
+        return v;
+    }
+
+    private int slot(String flag) {
+        for (int f = 0; f < names.length; f++) {
+            if (names[f].equals(flag)) {
+                return f * 2;
+            }
+        }
+        throw new IllegalArgumentException("Flag was not parsed: " + flag);
+    }
+
+    private String trimmed(int start, int end) {
+        while (start < end && Character.isWhitespace(input.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(input.charAt(end - 1))) {
+            end--;
+        }
+        return input.substring(start, end);
+    }
+}
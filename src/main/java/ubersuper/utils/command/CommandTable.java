@@ -0,0 +1,128 @@
+package ubersuper.utils.command;
+
+/**
+ * Precomputed keyword trie over the {@link CommandType} keywords.
+ * <p>
+ * {@link #dispatch(CharSequence)} reads the first token of the input in place, case-insensitively,
+ * walking one trie node per character. It never allocates: the matched command and the offset at
+ * which its arguments start are packed into a single {@code int}, unpacked with
+ * {@link #command(int)} and {@link #argumentStart(int)}.
+ */
+public final class CommandTable {
+    private static final int ALPHABET = 26;
+    private static final int TYPE_BITS = 5;
+    private static final int TYPE_MASK = (1 << TYPE_BITS) - 1;
+    private static final CommandType[] TYPES = CommandType.values();
+
+    /** {@code CHILDREN[node * 26 + letter]} is the child node, or {@code 0} if absent (root is node 0). */
+    private static final int[] CHILDREN;
+    /** Command whose keyword ends at each node, or {@code null}. */
+    private static final CommandType[] TERMINALS;
+
+    static {
+        assert TYPES.length <= TYPE_MASK + 1 : "CommandType no longer fits in the packed result";
+        int capacity = 1;
+        for (CommandType c : TYPES) {
+            capacity += c.getKeyword().length();
+        }
+        int[] children = new int[capacity * ALPHABET];
+        CommandType[] terminals = new CommandType[capacity];
+        int nodes = 1;
+        for (CommandType c : TYPES) {
+            String keyword = c.getKeyword();
+            if (keyword.isEmpty()) {
+                continue;
+            }
+            int node = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                int slot = node * ALPHABET + (keyword.charAt(i) - 'a');
+                if (children[slot] == 0) {
+                    children[slot] = nodes++;
+                }
+                node = children[slot];
+            }
+            terminals[node] = c;
+        }
+        CHILDREN = children;
+        TERMINALS = terminals;
+    }
+
+    private CommandTable() {
+    }
+
+    /**
+     * Looks up the command named by the first whitespace-delimited token of {@code input}.
+     * <p>
+     * Same rules as {@code Parser.fromInput}: surrounding whitespace is ignored, matching is
+     * case-insensitive and exact (no prefix matches), and null/blank input is
+     * {@link CommandType#UNKNOWN}.
+     *
+     * @param input full user input line (may be {@code null})
+     * @return packed command and argument offset
+     */
+    public static int dispatch(CharSequence input) {
+        if (input == null) {
+            return CommandType.UNKNOWN.ordinal();
+        }
+        int n = input.length();
+        int i = 0;
+        while (i < n && Character.isWhitespace(input.charAt(i))) {
+            i++;
+        }
+        int start = i;
+        int end = n;
+        while (end > start && Character.isWhitespace(input.charAt(end - 1))) {
+            end--;
+        }
+        int node = 0;
+        for (; i < end && !isSeparator(input.charAt(i)); i++) {
+            if (node < 0) {
+                continue;
+            }
+            char c = input.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            node = c >= 'a' && c <= 'z' ? CHILDREN[node * ALPHABET + (c - 'a')] : 0;
+            if (node == 0) {
+                node = -1;
+            }
+        }
+        CommandType type = node > 0 && i > start ? TERMINALS[node] : null;
+        if (type == null) {
+            type = CommandType.UNKNOWN;
+        }
+        while (i < n && Character.isWhitespace(input.charAt(i))) {
+            i++;
+        }
+        return (i << TYPE_BITS) | type.ordinal();
+    }
+
+    /**
+     * Returns the command of a {@link #dispatch(CharSequence)} result.
+     *
+     * @param dispatched packed dispatch result
+     * @return matched command, or {@link CommandType#UNKNOWN}
+     */
+    public static CommandType command(int dispatched) {
+        return TYPES[dispatched & TYPE_MASK];
+    }
+
+    /**
+     * Returns the offset of the first argument character of a {@link #dispatch(CharSequence)} result
+     * (the input length if there are no arguments).
+     *
+     * @param dispatched packed dispatch result
+     * @return offset into the dispatched input
+     */
+    public static int argumentStart(int dispatched) {
+        return dispatched >>> TYPE_BITS;
+    }
+
+    /**
+     * Returns {@code true} for the characters matched by the regex {@code \s}.
+     */
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
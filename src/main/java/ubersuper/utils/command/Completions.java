@@ -0,0 +1,244 @@
+package ubersuper.utils.command;
+
+import ubersuper.clients.Client;
+import ubersuper.clients.ClientList;
+import ubersuper.tasks.TaskList;
+import ubersuper.utils.Trie;
+import ubersuper.utils.change.ListChange;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.function.IntFunction;
+
+/**
+ * Suggests how to finish a partly typed command line.
+ * <p>
+ * What is suggested depends on where the caret is in the command:
+ * <ul>
+ *   <li>the first word: command keywords, each shown with its usage;</li>
+ *   <li>a word starting with {@code /}: the flags that command accepts;</li>
+ *   <li>after {@code /client} or {@code findclient}: client names;</li>
+ *   <li>after {@code mark}, {@code unmark}, {@code deletetask} or {@code deleteclient}: the
+ *       1-based indices that exist, each shown with its item.</li>
+ * </ul>
+ * Keywords and flags come from {@link Trie}s built once from {@link CommandType}. Client names
+ * live in a trie that follows the client list's {@link ClientList#changes() changes}, so it is
+ * never rebuilt. Indices need no index: the numbers with a given prefix are computed directly
+ * from the list size. Every lookup walks only the typed prefix and the returned suggestions.
+ */
+public class Completions {
+    private static final Trie KEYWORDS = new Trie();
+    private static final Map<String, CommandType> BY_KEYWORD = new HashMap<>();
+    private static final Map<CommandType, String> USAGE = new EnumMap<>(CommandType.class);
+    private static final Map<CommandType, Trie> FLAGS = new EnumMap<>(CommandType.class);
+    private static final Map<String, String> FLAG_USAGE = Map.of(
+            "by", "/by <time>",
+            "from", "/from <start>",
+            "to", "/to <end>",
+            "every", "/every [n] <day|week|month>",
+            "client", "/client <name>",
+            "phone", "/phone <phone number>",
+            "email", "/email <email address>");
+    private static final String CLIENT_FLAG = "/client ";
+
+    static {
+        usage(CommandType.BYE, "bye");
+        usage(CommandType.TASKLIST, "listtask", "client");
+        usage(CommandType.CLIENTLIST, "listclient");
+        usage(CommandType.MARK, "mark <idx>");
+        usage(CommandType.UNMARK, "unmark <idx>");
+        usage(CommandType.TODO, "todo <desc>", "client");
+        usage(CommandType.DEADLINE, "deadline <desc> /by <time>", "by", "every", "client");
+        usage(CommandType.EVENT, "event <desc> /from <start> /to <end>", "from", "to", "every", "client");
+        usage(CommandType.DELETETASK, "deletetask <idx>");
+        usage(CommandType.DELETECLIENT, "deleteclient <idx>");
+        usage(CommandType.ONDATE, "ondate <yyyy-mm-dd>", "client");
+        usage(CommandType.FINDTASK, "findtask <keywords>", "client");
+        usage(CommandType.FINDCLIENT, "findclient <name>");
+        usage(CommandType.ADDCLIENT, "addclient <name> /phone <p> /email <e>", "phone", "email");
+    }
+
+    private final Trie clientNames = new Trie();
+    private TaskList tasks;
+    private ClientList clients;
+
+    /**
+     * One way to finish the input.
+     */
+    public static final class Suggestion {
+        private final String text;
+        private final String label;
+
+        Suggestion(String text, String label) {
+            this.text = text;
+            this.label = label;
+        }
+
+        /**
+         * Returns the whole input line with this suggestion applied.
+         */
+        public String text() {
+            return text;
+        }
+
+        /**
+         * Returns what to show for this suggestion, e.g. a usage line or an item.
+         */
+        public String label() {
+            return label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private static void usage(CommandType command, String usage, String... flags) {
+        KEYWORDS.add(command.getKeyword());
+        BY_KEYWORD.put(command.getKeyword(), command);
+        USAGE.put(command, usage);
+        Trie trie = new Trie();
+        for (String flag : flags) {
+            trie.add(flag);
+        }
+        FLAGS.put(command, trie);
+    }
+
+    /**
+     * Starts suggesting items of the given lists. Call on the thread that mutates the lists, which
+     * must also be the thread {@code applyOn} runs on and that calls {@link #complete}.
+     *
+     * @param tasks   tasks whose indices are suggested
+     * @param clients clients whose indices and names are suggested
+     * @param applyOn executor that applies list changes to the name trie
+     */
+    public void bind(TaskList tasks, ClientList clients, Executor applyOn) {
+        this.tasks = tasks;
+        this.clients = clients;
+        for (Client c : clients) {
+            clientNames.add(c.getName());
+        }
+        clients.changes().subscribe(new Flow.Subscriber<ListChange<Client>>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ListChange<Client> change) {
+                applyOn.execute(() -> apply(change));
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+    }
+
+    private void apply(ListChange<Client> change) {
+        switch (change.type()) {
+        case ADDED:
+            clientNames.add(change.item().getName());
+            break;
+        case REMOVED:
+            clientNames.remove(change.item().getName());
+            break;
+        default:
+            break;
+        }
+    }
+
+    /**
+     * Returns ways to finish {@code input}, which is typed with the caret at its end.
+     *
+     * @param input text typed so far
+     * @param limit maximum number of suggestions
+     * @return suggestions, best first; empty if there are none or the input spans several lines
+     */
+    public List<Suggestion> complete(String input, int limit) {
+        List<Suggestion> out = new ArrayList<>();
+        if (input == null || input.isBlank() || input.indexOf('\n') >= 0) {
+            return out;
+        }
+        String head = input.stripLeading();
+        if (head.indexOf(' ') < 0) {
+            String lead = input.substring(0, input.length() - head.length());
+            for (String keyword : KEYWORDS.complete(head, limit)) {
+                out.add(new Suggestion(lead + keyword + " ", USAGE.get(BY_KEYWORD.get(keyword))));
+            }
+            return out;
+        }
+        int dispatched = CommandTable.dispatch(input);
+        CommandType command = CommandTable.command(dispatched);
+        if (command == CommandType.UNKNOWN) {
+            return out;
+        }
+        int tokenStart = input.lastIndexOf(' ') + 1;
+        String token = input.substring(tokenStart);
+        if (token.startsWith("/")) {
+            for (String flag : FLAGS.get(command).complete(token.substring(1), limit)) {
+                out.add(new Suggestion(input.substring(0, tokenStart) + "/" + flag + " ", FLAG_USAGE.get(flag)));
+            }
+            return out;
+        }
+        String args = input.substring(Math.min(CommandTable.argumentStart(dispatched), input.length()));
+        int client = input.lastIndexOf(CLIENT_FLAG);
+        if (client >= 0 && input.indexOf(" /", client) < 0 && accepts(command, "client")) {
+            names(input.substring(0, client + CLIENT_FLAG.length()), input.substring(client + CLIENT_FLAG.length()),
+                    limit, out);
+        } else if (command == CommandType.FINDCLIENT) {
+            names(input.substring(0, input.length() - args.length()), args, limit, out);
+        } else if (command == CommandType.MARK || command == CommandType.UNMARK
+                || command == CommandType.DELETETASK) {
+            indices(input, args, tasks == null ? 0 : tasks.size(), i -> i + ": " + tasks.get(i - 1), limit, out);
+        } else if (command == CommandType.DELETECLIENT) {
+            indices(input, args, clients == null ? 0 : clients.size(), i -> i + ": " + clients.get(i - 1).getName(),
+                    limit, out);
+        }
+        return out;
+    }
+
+    private static boolean accepts(CommandType command, String flag) {
+        return FLAGS.get(command).complete(flag, 1).contains(flag);
+    }
+
+    private void names(String before, String prefix, int limit, List<Suggestion> out) {
+        for (String name : clientNames.complete(prefix, limit)) {
+            out.add(new Suggestion(before + name, name));
+        }
+    }
+
+    /**
+     * Suggests the indices in {@code [1, count]} whose digits start with {@code typed}, smallest
+     * first: the typed number itself, then the ones a digit longer, and so on.
+     */
+    private static void indices(String input, String typed, int count, IntFunction<String> label,
+                                int limit, List<Suggestion> out) {
+        String before = input.substring(0, input.length() - typed.length());
+        if (typed.isEmpty()) {
+            for (int i = 1; i <= count && out.size() < limit; i++) {
+                out.add(new Suggestion(before + i, label.apply(i)));
+            }
+            return;
+        }
+        if (typed.length() > 9 || typed.charAt(0) == '0' || !typed.chars().allMatch(Character::isDigit)) {
+            return;
+        }
+        long low = Long.parseLong(typed);
+        for (long width = 1; low <= count && out.size() < limit; low *= 10, width *= 10) {
+            for (long i = low; i < low + width && i <= count && out.size() < limit; i++) {
+                out.add(new Suggestion(before + i, label.apply((int) i)));
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package ubersuper.utils.response;
+
+import java.util.List;
+
+/**
+ * Structured reply to a command, rendered to text only when a sink asks for it.
+ * <p>
+ * Carries:
+ * <ul>
+ *   <li>{@code kind}: what happened (see {@link ResponseKind}),</li>
+ *   <li>{@code message}: the header text, e.g. {@code "Here are the tasks in your list:\n"},</li>
+ *   <li>{@code items}: the affected or listed items, laid out as described by {@link Layout},</li>
+ *   <li>{@code count}: the list size after the change, for confirmations ({@code -1} if not shown).</li>
+ * </ul>
+ * Items are rendered with their {@code toString()} at render time, so a sink should render a
+ * response before running the next command. {@link #toString()} renders with {@link TextRenderer}.
+ */
+public class Response {
+    /**
+     * How {@link #items()} are written.
+     */
+    public enum Layout {
+        /** One item per line, as is. */
+        PLAIN,
+        /** {@code "3. item"}, numbered by {@link Response#number(int)}. */
+        NUMBERED,
+        /** {@code "- item"}. */
+        BULLETED
+    }
+
+    private final ResponseKind kind;
+    private final String message;
+    private final List<?> items;
+    private final Layout layout;
+    private final int[] numbers;
+    private final String whenEmpty;
+    private final boolean newlineAfterItems;
+    private final int count;
+    private final String countNoun;
+    private final boolean ruleAbove;
+    private final boolean ruleBelow;
+
+    private Response(ResponseKind kind, String message, List<?> items, Layout layout, int[] numbers,
+                     String whenEmpty, boolean newlineAfterItems, int count, String countNoun,
+                     boolean ruleAbove, boolean ruleBelow) {
+        this.kind = kind;
+        this.message = message;
+        this.items = items;
+        this.layout = layout;
+        this.numbers = numbers;
+        this.whenEmpty = whenEmpty;
+        this.newlineAfterItems = newlineAfterItems;
+        this.count = count;
+        this.countNoun = countNoun;
+        this.ruleAbove = ruleAbove;
+        this.ruleBelow = ruleBelow;
+    }
+
+    /**
+     * Confirms a change to one item, e.g. a task that was marked, added or removed.
+     *
+     * @param kind      what happened
+     * @param message   header line, ending in a newline
+     * @param item      affected item
+     * @param count     list size afterwards, or {@code -1} to leave it out
+     * @param countNoun plural noun for the count line, e.g. {@code "tasks"}
+     * @param ruleAbove whether a divider line precedes the header
+     * @return the response
+     */
+    public static Response confirm(ResponseKind kind, String message, Object item, int count, String countNoun,
+                                   boolean ruleAbove) {
+        return new Response(kind, message, List.of(item), Layout.PLAIN, null, null, true,
+                count, countNoun, ruleAbove, true);
+    }
+
+    /**
+     * Lists items under a header.
+     *
+     * @param kind              {@link ResponseKind#LIST} or {@link ResponseKind#MATCHES}
+     * @param message           header line, ending in a newline
+     * @param items             items to list (a snapshot; not copied)
+     * @param layout            how each item is written
+     * @param numbers           1-based numbers for {@link Layout#NUMBERED}, or {@code null} to count from 1
+     * @param whenEmpty         text written instead of an empty list, or {@code null} for nothing
+     * @param newlineAfterItems whether the list ends with a newline
+     * @return the response
+     */
+    public static Response list(ResponseKind kind, String message, List<?> items, Layout layout, int[] numbers,
+                                String whenEmpty, boolean newlineAfterItems) {
+        return new Response(kind, message, items, layout, numbers, whenEmpty, newlineAfterItems,
+                -1, null, false, false);
+    }
+
+    /**
+     * Reports a problem between divider lines.
+     *
+     * @param message error text
+     * @return the response
+     */
+    public static Response error(String message) {
+        return new Response(ResponseKind.ERROR, message + "\n", List.of(), Layout.PLAIN, null, null, false,
+                -1, null, true, true);
+    }
+
+    /**
+     * Replies with plain text only.
+     *
+     * @param kind    what happened
+     * @param message text to show
+     * @return the response
+     */
+    public static Response text(ResponseKind kind, String message) {
+        return new Response(kind, message, List.of(), Layout.PLAIN, null, null, false,
+                -1, null, false, false);
+    }
+
+    public ResponseKind kind() {
+        return kind;
+    }
+
+    public String message() {
+        return message;
+    }
+
+    public List<?> items() {
+        return items;
+    }
+
+    public Layout layout() {
+        return layout;
+    }
+
+    /**
+     * Returns the 1-based number of item {@code i} for {@link Layout#NUMBERED}.
+     *
+     * @param i position in {@link #items()}
+     */
+    public int number(int i) {
+        return numbers == null ? i + 1 : numbers[i];
+    }
+
+    public String whenEmpty() {
+        return whenEmpty;
+    }
+
+    public boolean newlineAfterItems() {
+        return newlineAfterItems;
+    }
+
+    /**
+     * Returns the list size after the change, or {@code -1} if the response does not report it.
+     */
+    public int count() {
+        return count;
+    }
+
+    public String countNoun() {
+        return countNoun;
+    }
+
+    public boolean ruleAbove() {
+        return ruleAbove;
+    }
+
+    public boolean ruleBelow() {
+        return ruleBelow;
+    }
+
+    @Override
+    public String toString() {
+        return TextRenderer.toText(this);
+    }
+}
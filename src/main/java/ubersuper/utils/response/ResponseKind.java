@@ -0,0 +1,15 @@
+package ubersuper.utils.response;
+
+/**
+ * What a {@link Response} reports, so front ends can style or route replies without parsing text.
+ */
+public enum ResponseKind {
+    ADDED,
+    REMOVED,
+    MARKED,
+    UNMARKED,
+    LIST,
+    MATCHES,
+    ERROR,
+    GOODBYE
+}
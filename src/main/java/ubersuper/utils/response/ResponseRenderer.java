@@ -0,0 +1,21 @@
+package ubersuper.utils.response;
+
+import java.io.IOException;
+
+/**
+ * Turns a {@link Response} into output for one kind of front end.
+ * <p>
+ * Rendering is deferred until a sink actually needs the text, and writes straight into the sink's
+ * {@link Appendable} instead of building intermediate strings.
+ */
+@FunctionalInterface
+public interface ResponseRenderer {
+    /**
+     * Writes {@code response} to {@code out}.
+     *
+     * @param response reply to render
+     * @param out      destination
+     * @throws IOException if {@code out} fails
+     */
+    void render(Response response, Appendable out) throws IOException;
+}
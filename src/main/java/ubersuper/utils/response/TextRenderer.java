@@ -0,0 +1,82 @@
+package ubersuper.utils.response;
+
+import ubersuper.utils.ui.Ui;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Renders responses as the plain text shown in the chat window and on the console.
+ * <p>
+ * {@link #render(Response)} reuses one {@link StringBuilder} across calls, so an instance must be
+ * confined to one thread (e.g. the JavaFX application thread).
+ */
+public class TextRenderer implements ResponseRenderer {
+    private final StringBuilder buffer = new StringBuilder(256);
+
+    /**
+     * Renders {@code response} into this renderer's reused buffer.
+     *
+     * @param response reply to render
+     * @return the rendered text
+     */
+    public String render(Response response) {
+        buffer.setLength(0);
+        write(response, buffer);
+        return buffer.toString();
+    }
+
+    /**
+     * Renders {@code response} with a fresh buffer; safe from any thread.
+     *
+     * @param response reply to render
+     * @return the rendered text
+     */
+    public static String toText(Response response) {
+        StringBuilder sb = new StringBuilder(256);
+        write(response, sb);
+        return sb.toString();
+    }
+
+    @Override
+    public void render(Response response, Appendable out) throws IOException {
+        if (out instanceof StringBuilder sb) {
+            write(response, sb);
+            return;
+        }
+        out.append(toText(response));
+    }
+
+    private static void write(Response r, StringBuilder out) {
+        if (r.ruleAbove()) {
+            out.append(Ui.printLine());
+        }
+        out.append(r.message());
+        List<?> items = r.items();
+        if (items.isEmpty() && r.whenEmpty() != null) {
+            out.append(r.whenEmpty());
+        }
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0) {
+                out.append('\n');
+            }
+            switch (r.layout()) {
+            case NUMBERED -> out.append(r.number(i)).append(". ");
+            case BULLETED -> out.append("- ");
+            default -> {
+            }
+            }
+            out.append(items.get(i));
+        }
+        if (r.newlineAfterItems()) {
+            out.append('\n');
+        }
+        if (r.count() >= 0) {
+            out.append("You now have ").append(r.count()).append(' ').append(r.countNoun())
+                    .append(" in the list \n");
+        }
+        if (r.ruleBelow()) {
+            out.append(Ui.printLine());
+        }
+    }
+}
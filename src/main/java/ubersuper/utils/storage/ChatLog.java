@@ -0,0 +1,504 @@
+package ubersuper.utils.storage;
+
+import ubersuper.utils.ChatMessage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Rolling on-disk log of the chat transcript, read back a page at a time.
+ *
+ * <h2>Log files</h2>
+ * <ul>
+ *   <li>Location: {@code data/history/chat-<n>.log}; a new file is started once the current one
+ *       reaches {@value #ROLL_BYTES} bytes, and only the newest {@value #KEEP_FILES} are kept.</li>
+ *   <li>Format: one message per line, {@code [Sender] | [Time] | [Text]}, with the sender as
+ *       {@code U}, {@code B} or {@code E}, the time in ISO format, and newlines and backslashes in
+ *       the text escaped as {@code \n} and {@code \\}.</li>
+ * </ul>
+ * <p>
+ * A position in the log is a {@code long} holding the file number in the high half and the byte
+ * offset in the low half. {@link #before(long, int)} and {@link #after(long, int)} read only the
+ * bytes next to a position, so a page costs the same however long the history is.
+ * <p>
+ * All file access runs on one background thread, so the caller (the UI thread in the GUI) never
+ * waits for the disk: {@link #append(ChatMessage)} only reserves the message's place and queues
+ * the line, and a page read is queued behind the lines appended before it and completes a future.
+ * Lines still queued are written by {@link #close()}.
+ * <p>
+ * A last line cut short by a crash is ended with a newline when the log is opened, so the next
+ * message starts a line of its own. Lines that cannot be read back are skipped.
+ */
+public class ChatLog implements Closeable {
+    private static final long ROLL_BYTES = 1 << 20;
+    private static final int KEEP_FILES = 8;
+    private static final int CHUNK = 16 * 1024;
+    private static final Pattern FILE_NAME = Pattern.compile("chat-(\\d+)\\.log");
+
+    private final Path dir;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "chat-log");
+        t.setDaemon(true);
+        return t;
+    });
+    /** Number of the newest file; guarded by {@code this}. */
+    private int current;
+    /** Size of the newest file once the queued lines are written; guarded by {@code this}. */
+    private long size;
+    /** File the writer appends to, and its number; only touched by the writer once the log is open. */
+    private FileChannel out;
+    private int outSeq;
+    /** The write that failed, if any; later appends and reads report it. */
+    private volatile IOException failure;
+
+    /**
+     * A run of consecutive messages read from the log.
+     */
+    public static final class Page {
+        private final List<ChatMessage> messages;
+        private final long start;
+        private final long end;
+
+        Page(List<ChatMessage> messages, long start, long end) {
+            this.messages = messages;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Returns the messages, oldest first.
+         */
+        public List<ChatMessage> messages() {
+            return messages;
+        }
+
+        /**
+         * Returns the position where the page starts, for reading further back.
+         */
+        public long start() {
+            return start;
+        }
+
+        /**
+         * Returns the position just after the page, for reading further on.
+         */
+        public long end() {
+            return end;
+        }
+    }
+
+    private ChatLog(Path dir, int current) throws IOException {
+        this.dir = dir;
+        this.current = current;
+        out = openForAppend(current);
+        outSeq = current;
+        size = out.size();
+        if (size > 0 && !endsWithNewline(file(current), size)) {
+            size += writeFully(new byte[]{'\n'});
+        }
+    }
+
+    /**
+     * Opens the log in {@code data/history}, creating it if needed.
+     *
+     * @return the log, positioned to append after the newest message
+     * @throws IOException if the directory or file cannot be opened
+     */
+    public static ChatLog open() throws IOException {
+        return open(Paths.get("data", "history"));
+    }
+
+    /**
+     * Opens the log in {@code dir}, creating it if needed.
+     *
+     * @param dir directory holding the log files
+     * @return the log, positioned to append after the newest message
+     * @throws IOException if the directory or file cannot be opened
+     */
+    public static ChatLog open(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        int newest = 1;
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Matcher m = FILE_NAME.matcher(file.getFileName().toString());
+                if (m.matches()) {
+                    newest = Math.max(newest, Integer.parseInt(m.group(1)));
+                }
+            }
+        }
+        return new ChatLog(dir, newest);
+    }
+
+    /**
+     * Appends {@code message} to the log. Returns without waiting for the line to be written.
+     *
+     * @param message message to store
+     * @return the same message with its {@link ChatMessage#position() position} in the log
+     * @throws IOException if an earlier write failed
+     */
+    public synchronized ChatMessage append(ChatMessage message) throws IOException {
+        checkWrites();
+        if (size >= ROLL_BYTES) {
+            current++;
+            size = 0;
+        }
+        long position = position(current, size);
+        byte[] line = encode(message);
+        size += line.length;
+        int seq = current;
+        writer.execute(() -> write(seq, line));
+        return new ChatMessage(message.sender(), message.text(), message.time(), position);
+    }
+
+    /**
+     * Returns the position after the newest message.
+     */
+    public synchronized long end() {
+        return position(current, size);
+    }
+
+    /**
+     * Reads up to {@code count} messages that come just before {@code position}, in the background.
+     *
+     * @param position a position returned by this log
+     * @param count    maximum number of messages
+     * @return future of the messages, oldest first, fewer than {@code count} once the oldest kept
+     *         file is reached; it fails with an {@link IOException} if reading fails
+     */
+    public CompletableFuture<Page> before(long position, int count) {
+        return read(() -> readBefore(position, count));
+    }
+
+    /**
+     * Reads up to {@code count} messages that come just after {@code position}, in the background.
+     *
+     * @param position a position returned by this log
+     * @param count    maximum number of messages
+     * @return future of the messages, oldest first, fewer than {@code count} once the newest message
+     *         is reached; it fails with an {@link IOException} if reading fails
+     */
+    public CompletableFuture<Page> after(long position, int count) {
+        return read(() -> readAfter(position, count));
+    }
+
+    /**
+     * Writes the queued lines and closes the log.
+     *
+     * @throws IOException if a write failed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            writer.shutdown();
+            out.close();
+        }
+    }
+
+    /**
+     * A page read; runs on the writer.
+     */
+    private interface PageRead {
+        Page run() throws IOException;
+    }
+
+    private CompletableFuture<Page> read(PageRead read) {
+        CompletableFuture<Page> page = new CompletableFuture<>();
+        try {
+            writer.execute(() -> {
+                try {
+                    checkWrites();
+                    page.complete(read.run());
+                } catch (IOException e) {
+                    page.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            page.completeExceptionally(new IOException("The chat log is closed"));
+        }
+        return page;
+    }
+
+    private Page readBefore(long position, int count) throws IOException {
+        List<ChatMessage> newestFirst = new ArrayList<>();
+        int seq = seq(position);
+        long off = offset(position);
+        while (newestFirst.size() < count) {
+            if (off == 0) {
+                if (Files.notExists(file(seq - 1))) {
+                    break;
+                }
+                seq--;
+                off = Files.size(file(seq));
+                continue;
+            }
+            if (Files.notExists(file(seq))) {
+                break;
+            }
+            try (FileChannel in = FileChannel.open(file(seq), StandardOpenOption.READ)) {
+                off = readBackward(in, seq, off, count - newestFirst.size(), newestFirst);
+            }
+        }
+        Collections.reverse(newestFirst);
+        return new Page(newestFirst, position(seq, off), position);
+    }
+
+    private Page readAfter(long position, int count) throws IOException {
+        List<ChatMessage> messages = new ArrayList<>();
+        int seq = seq(position);
+        long off = offset(position);
+        while (messages.size() < count) {
+            long fileSize = seq == outSeq ? out.size() : Files.exists(file(seq)) ? Files.size(file(seq)) : 0;
+            if (off >= fileSize) {
+                if (seq >= outSeq) {
+                    break;
+                }
+                seq++;
+                off = 0;
+                continue;
+            }
+            try (FileChannel in = FileChannel.open(file(seq), StandardOpenOption.READ)) {
+                off = readForward(in, seq, off, fileSize, count - messages.size(), messages);
+            }
+        }
+        return new Page(messages, position, position(seq, off));
+    }
+
+    /**
+     * Waits until the lines queued so far are written.
+     *
+     * @throws IOException if a write failed
+     */
+    private void flush() throws IOException {
+        try {
+            writer.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while writing the chat log");
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+        checkWrites();
+    }
+
+    private void checkWrites() throws IOException {
+        if (failure != null) {
+            throw new IOException("Could not write the chat log", failure);
+        }
+    }
+
+    /**
+     * Appends one line to file {@code seq}, moving on to that file (and deleting the oldest one
+     * kept) if it is new. Runs on the writer; after a failure, drops every later line.
+     */
+    private void write(int seq, byte[] line) {
+        if (failure != null) {
+            return;
+        }
+        try {
+            if (seq != outSeq) {
+                out.close();
+                out = openForAppend(seq);
+                outSeq = seq;
+                Files.deleteIfExists(file(seq - KEEP_FILES));
+            }
+            writeFully(line);
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    private int writeFully(byte[] bytes) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        while (buf.hasRemaining()) {
+            out.write(buf);
+        }
+        return bytes.length;
+    }
+
+    private static boolean endsWithNewline(Path file, long size) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(in, size - 1, 1)[0] == '\n';
+        }
+    }
+
+    /**
+     * Reads up to {@code n} whole lines ending at {@code off}, adding their messages newest first.
+     * The window read doubles until it holds enough lines or reaches the start of the file.
+     *
+     * @return offset of the first line read
+     */
+    private static long readBackward(FileChannel in, int seq, long off, int n, List<ChatMessage> newestFirst)
+            throws IOException {
+        for (long window = CHUNK; ; window *= 2) {
+            long from = Math.max(0, off - window);
+            byte[] bytes = read(in, from, (int) (off - from));
+            List<int[]> lines = new ArrayList<>();
+            int end = bytes.length;
+            for (int i = bytes.length - 2; i >= 0 && lines.size() < n; i--) {
+                if (bytes[i] == '\n') {
+                    lines.add(new int[]{i + 1, end});
+                    end = i + 1;
+                }
+            }
+            if (from == 0 && lines.size() < n && end > 0) {
+                lines.add(new int[]{0, end});
+            }
+            if (lines.size() >= n || from == 0) {
+                for (int[] line : lines) {
+                    add(newestFirst, bytes, line[0], line[1], position(seq, from + line[0]));
+                }
+                return from + lines.get(lines.size() - 1)[0];
+            }
+        }
+    }
+
+    /**
+     * Reads up to {@code n} whole lines starting at {@code off}, adding their messages in order.
+     * The window read doubles until it holds a whole line or reaches {@code fileSize}.
+     *
+     * @return offset just after the last line read
+     */
+    private static long readForward(FileChannel in, int seq, long off, long fileSize, int n,
+                                    List<ChatMessage> messages) throws IOException {
+        for (long window = CHUNK; ; window *= 2) {
+            int length = (int) Math.min(window, fileSize - off);
+            byte[] bytes = read(in, off, length);
+            int start = 0;
+            int taken = 0;
+            for (int i = 0; i < bytes.length && taken < n; i++) {
+                if (bytes[i] == '\n' || i == bytes.length - 1 && off + length == fileSize) {
+                    add(messages, bytes, start, i + 1, position(seq, off + start));
+                    start = i + 1;
+                    taken++;
+                }
+            }
+            if (taken > 0) {
+                return off + start;
+            }
+        }
+    }
+
+    private static byte[] read(FileChannel in, long from, int length) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        while (buf.hasRemaining() && in.read(buf, from + buf.position()) >= 0) {
+            // keep reading until the window is full
+        }
+        return buf.array();
+    }
+
+    private static void add(List<ChatMessage> to, byte[] bytes, int start, int end, long position) {
+        ChatMessage message = decode(new String(bytes, start, end - start, StandardCharsets.UTF_8), position);
+        if (message != null) {
+            to.add(message);
+        }
+    }
+
+    private static byte[] encode(ChatMessage message) {
+        String text = message.text();
+        StringBuilder sb = new StringBuilder(text.length() + 40);
+        sb.append(message.sender().name().charAt(0)).append(" | ").append(message.time()).append(" | ");
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+            case '\\':
+                sb.append("\\\\");
+                break;
+            case '\n':
+                sb.append("\\n");
+                break;
+            case '\r':
+                sb.append("\\r");
+                break;
+            default:
+                sb.append(c);
+                break;
+            }
+        }
+        return sb.append('\n').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses one log line, or returns {@code null} if it is malformed.
+     */
+    private static ChatMessage decode(String line, long position) {
+        String[] parts = line.split(" \\| ", 3);
+        if (parts.length < 3 || parts[0].length() != 1 || !parts[2].endsWith("\n")) {
+            return null;
+        }
+        ChatMessage.Sender sender;
+        switch (parts[0].charAt(0)) {
+        case 'U':
+            sender = ChatMessage.Sender.USER;
+            break;
+        case 'B':
+            sender = ChatMessage.Sender.BOT;
+            break;
+        case 'E':
+            sender = ChatMessage.Sender.ERROR;
+            break;
+        default:
+            return null;
+        }
+        LocalDateTime time;
+        try {
+            time = LocalDateTime.parse(parts[1]);
+        } catch (RuntimeException e) {
+            return null;
+        }
+        String escaped = parts[2];
+        StringBuilder text = new StringBuilder(escaped.length());
+        for (int i = 0; i < escaped.length() - 1; i++) {
+            char c = escaped.charAt(i);
+            if (c == '\\' && i + 1 < escaped.length() - 1) {
+                char next = escaped.charAt(++i);
+                text.append(next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                text.append(c);
+            }
+        }
+        return new ChatMessage(sender, text.toString(), time, position);
+    }
+
+    private FileChannel openForAppend(int seq) throws IOException {
+        return FileChannel.open(file(seq), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private Path file(int seq) {
+        return dir.resolve("chat-" + seq + ".log");
+    }
+
+    private static long position(int seq, long offset) {
+        return ((long) seq << 32) | offset;
+    }
+
+    private static int seq(long position) {
+        return (int) (position >>> 32);
+    }
+
+    private static long offset(long position) {
+        return position & 0xFFFFFFFFL;
+    }
+}
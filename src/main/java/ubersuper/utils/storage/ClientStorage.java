@@ -4,6 +4,7 @@ import ubersuper.clients.Client;
 import ubersuper.clients.ClientList;
 import ubersuper.tasks.Task;
 import ubersuper.tasks.TaskList;
+import ubersuper.utils.InternPool;
 import ubersuper.utils.LoadedResult;
 
 import java.io.IOException;
@@ -21,12 +22,22 @@ public class ClientStorage extends DataStorage<ClientList> {
         super("uberSuperClients.txt");
     }
 
+    /**
+     * Creates a storage that reads/writes clients to the given file.
+     *
+     * @param file path of the data file
+     */
+    public ClientStorage(Path file) {
+        super(file);
+    }
+
     /**
      * Loads clients from disk into a fresh {@link ClientList}.
      * <ul>
      *   <li>Silently skips malformed lines and keeps a count in {@link LoadedResult#skipped()}.</li>
      *   <li>Creates the {@code data/} folder and file if they do not exist.</li>
      *   <li>Parses timestamps using {@link LocalDateTime#parse(CharSequence)} (expects ISO format).</li>
+     *   <li>Shares repeated names, phone numbers and emails through the list's {@link InternPool}.</li>
      * </ul>
      *
      * @return a {@link LoadedResult} containing the populated {@link ClientList}, number of clients loaded,
@@ -44,28 +55,11 @@ public class ClientStorage extends DataStorage<ClientList> {
                 return new LoadedResult<ClientList>(clients, 0, 0);
             }
             List<String> lines = Files.readAllLines(dataPath, StandardCharsets.UTF_8);
-            // parse each line -> Task or null
+            // parse each line -> Client or null
             List<Client> parsedTasks = lines.stream()
                     .map(String::trim)
                     .filter(line -> !line.isEmpty())
-                    .map(line -> {
-                        try {
-                            String[] parts = line.split("\\|");
-                            for (int i = 0; i < parts.length; i++) {
-                                parts[i] = parts[i].trim();
-                            }
-
-                            if (parts.length < 3) {
-                                return null;
-                            }
-                            String name = parts[0];
-                            String phone = parts[1];
-                            String email = parts[2];
-                            return new Client(name, phone, email);
-                        } catch (Exception e) {
-                            return null;
-                        }
-                    })
+                    .map(line -> parse(line, clients.strings()))
                     .toList();
 
             // add valid clients to ClientList
@@ -75,6 +69,7 @@ public class ClientStorage extends DataStorage<ClientList> {
 
             // count skipped lines
             skipped = (int) parsedTasks.stream().filter(Objects::isNull).count();
+            synced(lines);
 
             return new LoadedResult<ClientList>(clients, clients.size(), skipped);
 
@@ -93,20 +88,57 @@ public class ClientStorage extends DataStorage<ClientList> {
      *
      * @param clients list of tasks to be saved
      */
-    public void save(ClientList clients) {
+    public synchronized void save(ClientList clients) {
+        if (deferSave(clients)) {
+            return;
+        }
         try {
             if (Files.notExists(dataPath.getParent())) {
                 Files.createDirectories(dataPath.getParent());
             }
-            List<String> lines = clients.stream().map(Client::formatString).collect(Collectors.toList());
+            List<String> lines = clients.read(() -> lines(clients));
             Files.write(dataPath,
                     lines,
                     StandardCharsets.UTF_8,
                     StandardOpenOption.CREATE,
                     StandardOpenOption.TRUNCATE_EXISTING);
+            synced(lines);
         } catch (IOException ioe) {
             System.out.print("Could not save tasks!");
         }
     }
-}
 
+    @Override
+    protected List<String> lines(ClientList clients) {
+        return clients.stream().map(Client::formatString).collect(Collectors.toList());
+    }
+
+    @Override
+    protected int apply(ClientList clients, List<String> lines) {
+        clients.strings().resetCounts();
+        return clients.write(() -> LineDiff.apply(clients, lines, Client::formatString,
+                line -> parse(line, clients.strings()), null));
+    }
+
+    /**
+     * Parses one trimmed storage line into a {@link Client}.
+     *
+     * @param line    pipe-separated storage line
+     * @param strings pool that repeated fields are shared through
+     * @return the parsed client, or {@code null} if the line is malformed
+     */
+    private Client parse(String line, InternPool strings) {
+        String[] parts = line.split("\\|");
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = parts[i].trim();
+        }
+
+        if (parts.length < 3) {
+            return null;
+        }
+        String name = strings.intern(parts[0]);
+        String phone = strings.intern(parts[1]);
+        String email = strings.intern(parts[2]);
+        return new Client(name, phone, email);
+    }
+}
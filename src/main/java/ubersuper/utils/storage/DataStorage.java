@@ -10,6 +10,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -32,6 +34,8 @@ import java.util.stream.Collectors;
  *       <li>Event   : two {@code ISO_LOCAL_DATE_TIME} values (start | end)</li>
  *     </ul>
  *   </li>
+ *   <li>Recurring deadlines/events add one more field with their rule, e.g. {@code every week}, and
+ *       once an occurrence is completed ahead of time, {@code done <ISO_LOCAL_DATE_TIME>}</li>
  * </ul>
  *
  * <p>The class also ensures the {@code data/} directory and the target file exist
@@ -44,6 +48,18 @@ public abstract class DataStorage<T> {
      */
     public final Path dataPath;
 
+    /**
+     * SHA-256 digest of the file content as last read or written by this app, used to tell
+     * external edits apart from our own writes. A digest rather than {@code hashCode()}, so that an
+     * edit is never mistaken for our own content.
+     */
+    private volatile byte[] syncedDigest;
+
+    /** Storage lines of the list when the current batch began, or {@code null} outside a batch. */
+    private List<String> batchStart;
+    /** The list as last saved during the current batch; written when the batch commits. */
+    private T batchUnsaved;
+
     /**
      * Creates a storage that reads/writes to {@code data/<fileName>}.
      *
@@ -51,7 +67,16 @@ public abstract class DataStorage<T> {
      */
     @SuppressWarnings({"checkstyle:Indentation", "checkstyle:CommentsIndentation"})
     public DataStorage(String fileName) {
-        dataPath = Paths.get("data", fileName);
+        this(Paths.get("data", fileName));
+    }
+
+    /**
+     * Creates a storage that reads/writes to the given file.
+     *
+     * @param dataPath path of the data file
+     */
+    protected DataStorage(Path dataPath) {
+        this.dataPath = dataPath;
     }
 
     public Path getDataPath() {
@@ -83,4 +108,122 @@ public abstract class DataStorage<T> {
      */
     @SuppressWarnings({"checkstyle:Indentation", "checkstyle:LineLength", "checkstyle:CommentsIndentation"})
     public abstract void save(T list);
+
+    /**
+     * Starts a batch: until {@link #commitBatch()} or {@link #rollbackBatch(Object)}, saves only
+     * remember the list, and nothing is written.
+     *
+     * @param list the list the batch will change
+     */
+    public void beginBatch(T list) {
+        batchStart = lines(list);
+        batchUnsaved = null;
+    }
+
+    /**
+     * Ends the batch, writing the list once if it was saved at all during the batch.
+     */
+    public void commitBatch() {
+        T unsaved = batchUnsaved;
+        batchStart = null;
+        batchUnsaved = null;
+        if (unsaved != null) {
+            save(unsaved);
+        }
+    }
+
+    /**
+     * Ends the batch, undoing its changes: {@code list} is patched back to its content when the
+     * batch began, touching only the records that differ. The file was not written during the
+     * batch, so it needs no change.
+     *
+     * @param list the list the batch changed
+     * @return number of records restored
+     */
+    public int rollbackBatch(T list) {
+        List<String> start = batchStart;
+        batchStart = null;
+        batchUnsaved = null;
+        return start == null ? 0 : apply(list, start);
+    }
+
+    /**
+     * Called first by {@link #save(Object)}: inside a batch, remembers {@code list} for
+     * {@link #commitBatch()} instead of writing it.
+     *
+     * @param list the list being saved
+     * @return {@code true} if the save was deferred and must not write
+     */
+    protected boolean deferSave(T list) {
+        if (batchStart == null) {
+            return false;
+        }
+        batchUnsaved = list;
+        return true;
+    }
+
+    /**
+     * Formats every record of {@code list} as its storage line.
+     *
+     * @param list the list to format
+     * @return one line per record, in order
+     */
+    protected abstract List<String> lines(T list);
+
+    /**
+     * Re-reads the file and applies any external edits to {@code list}.
+     * <p>
+     * Does nothing if the content is what this app last read or wrote. Otherwise only the
+     * records that differ are parsed and replaced, added or removed (see {@link LineDiff}).
+     *
+     * @param list the in-memory list previously loaded from this storage
+     * @return number of records changed; {@code 0} if the file was not edited externally
+     * @throws IOException if the file cannot be read
+     */
+    public int reload(T list) throws IOException {
+        if (Files.notExists(dataPath)) {
+            return 0;
+        }
+        List<String> lines = Files.readAllLines(dataPath, StandardCharsets.UTF_8);
+        byte[] digest = digest(lines);
+        if (MessageDigest.isEqual(digest, syncedDigest)) {
+            return 0;
+        }
+        int changed = apply(list, lines);
+        syncedDigest = digest;
+        return changed;
+    }
+
+    /**
+     * Records {@code lines} as the file content this app last read or wrote, so that
+     * {@link #reload(Object)} ignores it.
+     *
+     * @param lines lines of the file
+     */
+    protected void synced(List<String> lines) {
+        syncedDigest = digest(lines);
+    }
+
+    private static byte[] digest(List<String> lines) {
+        MessageDigest sha;
+        try {
+            sha = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required of every Java platform", e);
+        }
+        for (String line : lines) {
+            sha.update(line.getBytes(StandardCharsets.UTF_8));
+            sha.update((byte) '\n');
+        }
+        return sha.digest();
+    }
+
+    /**
+     * Applies the given file content to {@code list}, touching only the records that differ.
+     *
+     * @param list  the in-memory list to update
+     * @param lines raw lines of the storage file
+     * @return number of records changed
+     */
+    protected abstract int apply(T list, List<String> lines);
 }
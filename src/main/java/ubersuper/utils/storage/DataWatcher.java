@@ -0,0 +1,120 @@
+package ubersuper.utils.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+
+/**
+ * Watches the {@code data/} directory for external edits to storage files and applies them
+ * to the in-memory lists.
+ * <p>
+ * Events are collected on a background daemon thread; the actual re-read and
+ * {@link DataStorage#reload(Object)} run on the given executor (the UI thread in the GUI), so
+ * they never race with the app's own saves. Our own writes are recognised by content hash and
+ * ignored.
+ */
+public class DataWatcher implements Closeable {
+    private final WatchService watchService;
+    private final Executor applyOn;
+    private final BiConsumer<Path, Integer> onReload;
+    private final Map<Path, Runnable> reloads = new ConcurrentHashMap<>();
+    private final Set<Path> registeredDirs = ConcurrentHashMap.newKeySet();
+    private final Thread thread;
+
+    /**
+     * Creates a watcher and starts its background thread.
+     *
+     * @param applyOn  executor that applies reloads (e.g., the UI thread)
+     * @param onReload called on {@code applyOn} with the file name and number of records changed,
+     *                 whenever an external edit was applied
+     * @throws IOException if the file system does not support watching
+     */
+    public DataWatcher(Executor applyOn, BiConsumer<Path, Integer> onReload) throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.applyOn = applyOn;
+        this.onReload = onReload;
+        this.thread = new Thread(this::run, "data-watcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Starts watching the file of {@code storage} and applying external edits to {@code list}.
+     *
+     * @param storage storage whose file to watch
+     * @param list    list previously loaded from {@code storage}
+     * @param <T>     list type
+     * @throws IOException if the directory cannot be registered
+     */
+    public <T> void watch(DataStorage<T> storage, T list) throws IOException {
+        Path file = storage.getDataPath().toAbsolutePath();
+        Path dir = file.getParent();
+        if (registeredDirs.add(dir)) {
+            dir.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        }
+        reloads.put(file, () -> {
+            try {
+                int changed = storage.reload(list);
+                if (changed > 0) {
+                    onReload.accept(file.getFileName(), changed);
+                }
+            } catch (IOException ioe) {
+                // the file may be mid-write by the external editor; the next event retries
+            }
+        });
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Set<Path> changed = new LinkedHashSet<>();
+                collect(key, changed);
+                // coalesce bursts (editors often write a file in several steps)
+                Thread.sleep(50);
+                WatchKey more;
+                while ((more = watchService.poll()) != null) {
+                    collect(more, changed);
+                }
+                for (Path file : changed) {
+                    Runnable reload = reloads.get(file);
+                    if (reload != null) {
+                        applyOn.execute(reload);
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // watcher closed
+        }
+    }
+
+    private void collect(WatchKey key, Set<Path> changed) {
+        Path dir = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path name) {
+                changed.add(dir.resolve(name));
+            }
+        }
+        key.reset();
+    }
+
+    @Override
+    public void close() throws IOException {
+        thread.interrupt();
+        watchService.close();
+    }
+}
@@ -0,0 +1,112 @@
+package ubersuper.utils.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Applies the difference between an in-memory list and a freshly read storage file.
+ * <p>
+ * Records are compared by their storage line: hashes first, to reject most differing lines
+ * cheaply, then {@code equals} to confirm a match. The common prefix and suffix of the two
+ * sequences are left untouched; only the differing middle is parsed and written back, so an
+ * external edit of one line costs one replacement instead of a full reload.
+ */
+final class LineDiff {
+
+    /**
+     * Updates a record in place when the new line only differs in mutable state.
+     *
+     * @param <E> element type
+     */
+    @FunctionalInterface
+    interface InPlaceUpdate<E> {
+        /**
+         * @param index   0-based position of {@code current}
+         * @param current record currently held in memory
+         * @param parsed  record parsed from the new line
+         * @return {@code true} if {@code current} was updated and need not be replaced
+         */
+        boolean apply(int index, E current, E parsed);
+    }
+
+    private LineDiff() {
+    }
+
+    /**
+     * Brings {@code current} in line with {@code lines}.
+     * <p>
+     * Blank lines are ignored and malformed lines (for which {@code parser} returns {@code null})
+     * are dropped, as they would be on a full load.
+     *
+     * @param current   list to update
+     * @param lines     raw lines of the storage file
+     * @param formatter storage-line form of a record
+     * @param parser    parses a trimmed line into a record, or returns {@code null}
+     * @param inPlace   optional in-place update for records that only changed state (may be {@code null})
+     * @param <E>       element type
+     * @return number of records added, removed or changed
+     */
+    static <E> int apply(List<E> current, List<String> lines, Function<E, String> formatter,
+                         Function<String, E> parser, InPlaceUpdate<E> inPlace) {
+        List<String> fresh = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (!trimmed.isEmpty()) {
+                fresh.add(trimmed);
+            }
+        }
+        int n = current.size();
+        int m = fresh.size();
+        String[] old = new String[n];
+        for (int i = 0; i < n; i++) {
+            old[i] = formatter.apply(current.get(i));
+        }
+
+        int prefix = 0;
+        while (prefix < n && prefix < m && same(old[prefix], fresh.get(prefix))) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < n - prefix && suffix < m - prefix && same(old[n - 1 - suffix], fresh.get(m - 1 - suffix))) {
+            suffix++;
+        }
+
+        List<E> middle = new ArrayList<>();
+        for (int i = prefix; i < m - suffix; i++) {
+            E parsed = parser.apply(fresh.get(i));
+            if (parsed != null) {
+                middle.add(parsed);
+            }
+        }
+
+        int oldMiddle = n - suffix - prefix;
+        int shared = Math.min(oldMiddle, middle.size());
+        int changed = 0;
+        for (int j = 0; j < shared; j++) {
+            int index = prefix + j;
+            E parsed = middle.get(j);
+            if (inPlace == null || !inPlace.apply(index, current.get(index), parsed)) {
+                current.set(index, parsed);
+            }
+            changed++;
+        }
+        for (int j = shared; j < middle.size(); j++) {
+            current.add(prefix + j, middle.get(j));
+            changed++;
+        }
+        for (int j = shared; j < oldMiddle; j++) {
+            current.remove(prefix + shared);
+            changed++;
+        }
+        return changed;
+    }
+
+    /**
+     * Returns whether two lines are equal; the (cached) hashes settle most unequal pairs, and
+     * {@code equals} rules out lines that merely share a hash.
+     */
+    private static boolean same(String a, String b) {
+        return a.hashCode() == b.hashCode() && a.equals(b);
+    }
+}
@@ -1,15 +1,23 @@
 package ubersuper.utils.storage;
 
+import ubersuper.tasks.ClientPartitions;
 import ubersuper.tasks.Deadline;
 import ubersuper.tasks.Event;
+import ubersuper.tasks.Recurrence;
+import ubersuper.tasks.Recurring;
+import ubersuper.tasks.RecurringDeadline;
+import ubersuper.tasks.RecurringEvent;
 import ubersuper.tasks.Task;
 import ubersuper.tasks.TaskList;
 import ubersuper.tasks.Todo;
+import ubersuper.utils.InternPool;
 import ubersuper.utils.LoadedResult;
+import ubersuper.utils.Parser;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -23,12 +31,22 @@ public class TaskStorage extends DataStorage<TaskList> {
         super("uberSuperTasks.txt");
     }
 
+    /**
+     * Creates a storage that reads/writes tasks to the given file.
+     *
+     * @param file path of the data file
+     */
+    public TaskStorage(Path file) {
+        super(file);
+    }
+
     /**
      * Loads tasks from disk into a fresh {@link TaskList}.
      * <ul>
      *   <li>Silently skips malformed lines and keeps a count in {@link LoadedResult#skipped()}.</li>
      *   <li>Creates the {@code data/} folder and file if they do not exist.</li>
-     *   <li>Parses timestamps using {@link LocalDateTime#parse(CharSequence)} (expects ISO format).</li>
+     *   <li>Parses timestamps with {@link Parser#parseIsoDateTime(String)} (ISO format, memoised).</li>
+     *   <li>Shares repeated descriptions and client names through the list's {@link InternPool}.</li>
      * </ul>
      *
      * @return a {@link LoadedResult} containing the populated {@link TaskList}, number of tasks loaded,
@@ -50,60 +68,7 @@ public class TaskStorage extends DataStorage<TaskList> {
             List<Task> parsedTasks = lines.stream()
                     .map(String::trim)
                     .filter(line -> !line.isEmpty())
-                    .map(line -> {
-                        try {
-                            String[] parts = line.split("\\|");
-                            for (int i = 0; i < parts.length; i++) {
-                                parts[i] = parts[i].trim();
-                            }
-
-                            if (parts.length < 3) {
-                                return null;
-                            }
-
-                            String type = parts[0];
-                            int done = Integer.parseInt(parts[1]);
-                            String description = parts[2];
-
-                            switch (type) {
-                            case "T" -> {
-                                Todo t = new Todo(description);
-                                if (done == 1) {
-                                    t.mark();
-                                }
-                                return t;
-                            }
-                            case "D" -> {
-                                if (parts.length < 4) {
-                                    return null;
-                                }
-                                LocalDateTime deadline = LocalDateTime.parse(parts[3]);
-                                Deadline d = new Deadline(description, deadline);
-                                if (done == 1) {
-                                    d.mark();
-                                }
-                                return d;
-                            }
-                            case "E" -> {
-                                if (parts.length < 5) {
-                                    return null;
-                                }
-                                LocalDateTime start = LocalDateTime.parse(parts[3]);
-                                LocalDateTime end = LocalDateTime.parse(parts[4]);
-                                Event e = new Event(description, start, end);
-                                if (done == 1) {
-                                    e.mark();
-                                }
-                                return e;
-                            }
-                            default -> {
-                                return null;
-                            }
-                            }
-                        } catch (Exception e) {
-                            return null;
-                        }
-                    })
+                    .map(line -> parse(line, tasks.strings()))
                     .toList();
 
             // add valid tasks to TaskList
@@ -113,6 +78,7 @@ public class TaskStorage extends DataStorage<TaskList> {
 
             // count skipped lines
             skipped = (int) parsedTasks.stream().filter(Objects::isNull).count();
+            synced(lines);
 
             return new LoadedResult<TaskList>(tasks, tasks.size(), skipped);
 
@@ -125,26 +91,170 @@ public class TaskStorage extends DataStorage<TaskList> {
      * Saves the current {@link TaskList} to disk, overwriting the previous content.
      * <ul>
      *   <li>Ensures the {@code data/} directory exists.</li>
-     *   <li>Serializes each task via {@link Task#formatString()}.</li>
+     *   <li>Serializes each task via {@link Task#formatString()}, plus its client if any.</li>
      *   <li>Writes using UTF-8; truncates the file first.</li>
      * </ul>
      *
      * @param tasks list of tasks to be saved
      */
     @SuppressWarnings({"checkstyle:Indentation", "checkstyle:LineLength", "checkstyle:CommentsIndentation"})
-    public void save(TaskList tasks) {
+    public synchronized void save(TaskList tasks) {
+        if (deferSave(tasks)) {
+            return;
+        }
         try {
             if (Files.notExists(dataPath.getParent())) {
                 Files.createDirectories(dataPath.getParent());
             }
-            List<String> lines = tasks.stream().map(Task::formatString).collect(Collectors.toList());
+            List<String> lines = tasks.read(() -> lines(tasks));
             Files.write(dataPath,
                     lines,
                     StandardCharsets.UTF_8,
                     StandardOpenOption.CREATE,
                     StandardOpenOption.TRUNCATE_EXISTING);
+            synced(lines);
         } catch (IOException ioe) {
             System.out.print("Could not save tasks!");
         }
     }
+
+    @Override
+    protected List<String> lines(TaskList tasks) {
+        return tasks.stream().map(TaskStorage::format).collect(Collectors.toList());
+    }
+
+    /**
+     * Applies external edits to {@code tasks}. A line that only flips the done flag of the task
+     * at the same position marks/unmarks that task instead of replacing it, unless the task is
+     * recurring, where marking completes a single occurrence rather than matching the line.
+     */
+    @Override
+    protected int apply(TaskList tasks, List<String> lines) {
+        tasks.strings().resetCounts();
+        return tasks.write(() -> LineDiff.apply(tasks, lines, TaskStorage::format,
+                line -> parse(line, tasks.strings()), (index, current, parsed) -> {
+            if (current instanceof Recurring || current.isDone() == parsed.isDone()
+                    || !sameExceptDone(current, parsed)
+                    || !Objects.equals(current.client(), parsed.client())) {
+                return false;
+            }
+            tasks.setDone(index, parsed.isDone());
+            return true;
+        }));
+    }
+
+    /**
+     * Compares two storage lines while ignoring the status field ({@code "T | 0 | ..."}).
+     */
+    private static boolean sameExceptDone(Task a, Task b) {
+        String x = a.formatString();
+        String y = b.formatString();
+        return x.length() == y.length()
+                && x.regionMatches(0, y, 0, 4)
+                && x.regionMatches(5, y, 5, x.length() - 5);
+    }
+
+    /**
+     * Parses a stored recurrence field such as {@code "every 2 weeks"}.
+     */
+    private static Recurrence parseEvery(String field) {
+        if (!field.startsWith("every")) {
+            throw new IllegalArgumentException("Not a recurrence: " + field);
+        }
+        return Recurrence.parse(field.substring(5));
+    }
+
+    /**
+     * Returns the storage line for {@code t}: its {@link Task#formatString()} plus a
+     * {@code client <name>} field if it belongs to a client.
+     */
+    private static String format(Task t) {
+        return t.client() == null ? t.formatString() : t.formatString() + " | client " + t.client();
+    }
+
+    /**
+     * Parses one trimmed storage line into a {@link Task}.
+     * <p>
+     * After the fields of its type, a line may carry optional {@code every ...} (recurrence),
+     * {@code done <date-time>} (last occurrence completed, recurring tasks only) and
+     * {@code client <name>} fields, in any order.
+     *
+     * @param line    pipe-separated storage line
+     * @param strings pool that repeated descriptions and client names are shared through
+     * @return the parsed task, or {@code null} if the line is malformed
+     */
+    private Task parse(String line, InternPool strings) {
+        try {
+            String[] parts = line.split("\\|");
+            for (int i = 0; i < parts.length; i++) {
+                parts[i] = parts[i].trim();
+            }
+
+            if (parts.length < 3) {
+                return null;
+            }
+
+            String type = parts[0];
+            int done = Integer.parseInt(parts[1]);
+            String description = strings.intern(parts[2]);
+            int fields = switch (type) {
+            case "T" -> 3;
+            case "D" -> 4;
+            case "E" -> 5;
+            default -> -1;
+            };
+            if (fields < 0 || parts.length < fields) {
+                return null;
+            }
+
+            Recurrence every = null;
+            LocalDateTime completed = null;
+            String client = null;
+            for (int i = fields; i < parts.length; i++) {
+                if (parts[i].startsWith("every")) {
+                    every = parseEvery(parts[i]);
+                } else if (parts[i].startsWith("done ")) {
+                    completed = Parser.parseIsoDateTime(parts[i].substring("done ".length()));
+                } else if (parts[i].startsWith("client ")) {
+                    String name = ClientPartitions.name(parts[i].substring("client ".length()));
+                    client = name == null ? null : strings.intern(name);
+                } else {
+                    return null;
+                }
+            }
+            if (completed != null && every == null) {
+                return null;
+            }
+
+            Task task;
+            switch (type) {
+            case "T" -> {
+                if (every != null) {
+                    return null;
+                }
+                task = new Todo(description);
+            }
+            case "D" -> {
+                LocalDateTime deadline = Parser.parseIsoDateTime(parts[3]);
+                task = every == null
+                        ? new Deadline(description, deadline)
+                        : new RecurringDeadline(description, deadline, every, completed);
+            }
+            default -> {
+                LocalDateTime start = Parser.parseIsoDateTime(parts[3]);
+                LocalDateTime end = Parser.parseIsoDateTime(parts[4]);
+                task = every == null
+                        ? new Event(description, start, end)
+                        : new RecurringEvent(description, start, end, every, completed);
+            }
+            }
+            if (done == 1) {
+                task.mark();
+            }
+            task.setClient(client);
+            return task;
+        } catch (Exception e) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,57 @@
+package ubersuper.utils.ui;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javafx.scene.image.Image;
+
+/**
+ * Avatar images, each decoded once at the size a {@link DialogBox} shows it and shared by every box.
+ * <p>
+ * Decoding straight to {@value #SIZE} pixels, with smooth scaling, keeps only the pixels that are
+ * drawn in memory, instead of the full picture for the {@code ImageView} to scale down each frame.
+ */
+final class Avatars {
+    /** Width and height of an avatar on screen, in pixels. */
+    static final double SIZE = 48.0;
+
+    private static final Map<String, Image> CACHE = new ConcurrentHashMap<>();
+
+    private Avatars() {
+    }
+
+    /**
+     * Returns the avatar for the user's messages.
+     */
+    static Image user() {
+        return get("/images/User.png");
+    }
+
+    /**
+     * Returns the avatar for the bot's messages.
+     */
+    static Image uberSuper() {
+        return get("/images/Uber.png");
+    }
+
+    /**
+     * Returns the image at {@code path} on the class path, fitted within {@value #SIZE} pixels.
+     *
+     * @param path resource path, e.g. {@code "/images/User.png"}
+     */
+    static Image get(String path) {
+        return CACHE.computeIfAbsent(path, Avatars::decode);
+    }
+
+    private static Image decode(String path) {
+        try (InputStream in = Avatars.class.getResourceAsStream(path)) {
+            assert in != null : "missing image " + path;
+            return new Image(in, SIZE, SIZE, true, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
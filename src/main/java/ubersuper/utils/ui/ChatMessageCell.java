@@ -0,0 +1,88 @@
+package ubersuper.utils.ui;
+
+import java.util.function.IntPredicate;
+
+import javafx.animation.FadeTransition;
+import javafx.scene.Parent;
+import javafx.scene.control.ListCell;
+import javafx.scene.image.Image;
+import javafx.util.Duration;
+import ubersuper.utils.ChatMessage;
+
+/**
+ * Transcript cell that shows a {@link ChatMessage} as a {@link DialogBox}.
+ * <p>
+ * The list view only creates enough cells to fill the screen and moves them between messages as
+ * the user scrolls, so each cell keeps one box per side and refills it instead of building new
+ * nodes.
+ */
+class ChatMessageCell extends ListCell<ChatMessage> {
+    private final Image userImage;
+    private final Image uberSuperImage;
+    private final IntPredicate onShown;
+    private final FadeTransition fade = new FadeTransition(Duration.millis(180));
+
+    private DialogBox userBox;
+    private DialogBox uberBox;
+
+    /**
+     * Creates a cell.
+     *
+     * @param userImage      avatar for the user's messages
+     * @param uberSuperImage avatar for the bot's messages
+     * @param onShown        told the index of each message this cell puts on screen; answers whether
+     *                       it is there for the first time, in which case it fades in
+     */
+    ChatMessageCell(Image userImage, Image uberSuperImage, IntPredicate onShown) {
+        this.userImage = userImage;
+        this.uberSuperImage = uberSuperImage;
+        this.onShown = onShown;
+        fade.setFromValue(0.0);
+        fade.setToValue(1.0);
+        setPrefWidth(0); // take the list's width, not the bubble's, so there is no horizontal scroll bar
+        getStyleClass().add("chat-cell");
+    }
+
+    @Override
+    protected void updateItem(ChatMessage message, boolean empty) {
+        super.updateItem(message, empty);
+        fade.stop();
+        if (empty || message == null) {
+            setGraphic(null);
+            return;
+        }
+        DialogBox box = boxFor(message.sender());
+        box.show(message.text(), message.time());
+        box.setOpacity(1.0);
+        setGraphic(box);
+        if (isOnScreen() && onShown.test(getIndex())) {
+            fade.setNode(box);
+            fade.playFromStart();
+        }
+    }
+
+    private DialogBox boxFor(ChatMessage.Sender sender) {
+        switch (sender) {
+        case USER:
+            if (userBox == null) {
+                userBox = DialogBox.getUserDialog("", userImage);
+            }
+            return userBox;
+        default:
+            if (uberBox == null) {
+                uberBox = DialogBox.getUberDialog("", uberSuperImage);
+            }
+            uberBox.setError(sender == ChatMessage.Sender.ERROR);
+            return uberBox;
+        }
+    }
+
+    /**
+     * Returns whether this cell is part of the visible list, as opposed to a hidden cell the list
+     * view uses only to measure message heights.
+     */
+    private boolean isOnScreen() {
+        Parent parent = getParent();
+        return parent != null && parent.isVisible();
+    }
+}
@@ -0,0 +1,123 @@
+package ubersuper.utils.ui;
+
+import java.util.List;
+
+import javafx.application.Platform;
+import javafx.geometry.Bounds;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextInputControl;
+import javafx.scene.input.KeyEvent;
+import javafx.stage.Popup;
+import ubersuper.clients.ClientList;
+import ubersuper.tasks.TaskList;
+import ubersuper.utils.command.Completions;
+import ubersuper.utils.command.Completions.Suggestion;
+
+/**
+ * Popup above the input field that suggests how to finish the command being typed.
+ * <p>
+ * Suggestions come from {@link Completions} on every keystroke; a lookup takes microseconds, so
+ * it runs right on the JavaFX thread. Up and Down pick a suggestion, Tab accepts it and Escape
+ * closes the popup. Enter still sends the input as typed.
+ */
+class CompletionPopup {
+    private static final int MAX_SHOWN = 8;
+    private static final double ROW_HEIGHT = 24.0;
+
+    private final TextInputControl input;
+    private final Completions completions = new Completions();
+    private final ListView<Suggestion> list = new ListView<>();
+    private final Popup popup = new Popup();
+    private boolean bound;
+
+    /**
+     * Attaches a popup to {@code input}; it stays inactive until {@link #bind(TaskList, ClientList)}.
+     *
+     * @param input field whose text is completed
+     */
+    CompletionPopup(TextInputControl input) {
+        this.input = input;
+        list.setPrefWidth(360.0);
+        list.setFixedCellSize(ROW_HEIGHT);
+        list.setFocusTraversable(false);
+        list.setOnMouseClicked(event -> accept());
+        popup.getContent().add(list);
+        popup.setAutoHide(true);
+        input.textProperty().addListener((obs, oldText, text) -> suggest(text));
+        input.addEventFilter(KeyEvent.KEY_PRESSED, this::onKey);
+    }
+
+    /**
+     * Starts suggesting, including the indices and names of the given lists. Call on the JavaFX
+     * application thread, which must also be the thread that mutates them.
+     *
+     * @param tasks   tasks whose indices are suggested
+     * @param clients clients whose indices and names are suggested
+     */
+    void bind(TaskList tasks, ClientList clients) {
+        completions.bind(tasks, clients, Platform::runLater);
+        bound = true;
+    }
+
+    private void suggest(String text) {
+        List<Suggestion> suggestions = bound && input.isFocused() ? completions.complete(text, MAX_SHOWN) : List.of();
+        if (suggestions.isEmpty() || suggestions.size() == 1 && suggestions.get(0).text().equals(text)) {
+            popup.hide();
+            return;
+        }
+        list.getItems().setAll(suggestions);
+        list.getSelectionModel().selectFirst();
+        double height = suggestions.size() * ROW_HEIGHT + 2;
+        list.setPrefHeight(height);
+        Bounds bounds = input.localToScreen(input.getBoundsInLocal());
+        if (bounds == null) {
+            return;
+        }
+        if (popup.isShowing()) {
+            popup.setY(bounds.getMinY() - height);
+        } else {
+            popup.show(input, bounds.getMinX(), bounds.getMinY() - height);
+        }
+    }
+
+    private void onKey(KeyEvent event) {
+        if (!popup.isShowing()) {
+            return;
+        }
+        switch (event.getCode()) {
+        case DOWN:
+            list.getSelectionModel().selectNext();
+            list.scrollTo(list.getSelectionModel().getSelectedIndex());
+            event.consume();
+            break;
+        case UP:
+            list.getSelectionModel().selectPrevious();
+            list.scrollTo(list.getSelectionModel().getSelectedIndex());
+            event.consume();
+            break;
+        case TAB:
+            accept();
+            event.consume();
+            break;
+        case ESCAPE:
+            popup.hide();
+            event.consume();
+            break;
+        case ENTER:
+            popup.hide();
+            break;
+        default:
+            break;
+        }
+    }
+
+    private void accept() {
+        Suggestion chosen = list.getSelectionModel().getSelectedItem();
+        if (chosen == null) {
+            return;
+        }
+        input.setText(chosen.text());
+        input.positionCaret(chosen.text().length());
+        input.requestFocus();
+    }
+}
@@ -1,50 +1,89 @@
 package ubersuper.utils.ui;
 
-import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Collections;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
+import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
 import javafx.scene.control.Label;
-import javafx.scene.layout.Priority;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
 
 
 /**
  * Represents a dialog box consisting of an ImageView to represent the speaker's face
  * and a label containing text from the speaker.
+ * <p>
+ * The layout is built in code rather than loaded from FXML, since parsing the same markup for
+ * every message was the bulk of the cost of showing one.
  */
 public class DialogBox extends HBox {
-    @FXML
-    private Label dialog;
-    @FXML
-    private Label timestamp;
-    @FXML
-    private ImageView displayPicture;
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm");
+    private static final String STYLESHEET = DialogBox.class.getResource("/css/dialog-box.css").toExternalForm();
+
+    private final Label dialog = new Label();
+    private final Label timestamp = new Label();
+    private final ImageView displayPicture = new ImageView();
 
     private DialogBox(String text, Image img) {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(MainWindow.class.getResource("/view/DialogBox.fxml"));
-            fxmlLoader.setController(this);
-            fxmlLoader.setRoot(this);
-            fxmlLoader.load();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        dialog.getStyleClass().add("message-label");
+        dialog.setWrapText(true);
+        dialog.setMinHeight(Region.USE_PREF_SIZE);
+        dialog.setMaxWidth(280.0);
+        dialog.setPadding(new Insets(6.0, 8.0, 6.0, 8.0));
+        dialog.setFont(Font.font("Century Gothic", 12.0));
+        timestamp.getStyleClass().add("timestamp");
+        VBox bubble = new VBox(4.0, dialog, timestamp);
 
-        dialog.setText(text);
-        timestamp.setText(DateTimeFormatter.ofPattern("HH:mm").format(LocalDateTime.now()));
+        displayPicture.setId("displayPicture");
+        displayPicture.setFitWidth(Avatars.SIZE);
+        displayPicture.setFitHeight(Avatars.SIZE);
+        displayPicture.setPreserveRatio(true);
+        displayPicture.setPickOnBounds(true);
+
+        getChildren().setAll(bubble, displayPicture);
+        getStylesheets().add(STYLESHEET);
+        setAlignment(Pos.TOP_RIGHT);
+        setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
+        setPrefWidth(400.0);
+        setPadding(new Insets(15.0, 5.0, 15.0, 5.0));
+
+        show(text, LocalDateTime.now());
         displayPicture.setImage(img);
     }
 
+    /**
+     * Replaces the shown message, so that a box can be reused for another message on the same side.
+     *
+     * @param text message text
+     * @param time when the message was sent
+     */
+    void show(String text, LocalDateTime time) {
+        dialog.setText(text);
+        timestamp.setText(TIME.format(time));
+    }
+
+    /**
+     * Switches the error styling of the message bubble on or off.
+     *
+     * @param error whether the message reports an error
+     */
+    void setError(boolean error) {
+        if (!error) {
+            dialog.getStyleClass().remove("error-label");
+        } else if (!dialog.getStyleClass().contains("error-label")) {
+            dialog.getStyleClass().add("error-label");
+        }
+    }
+
     /**
      * Flips the dialog box such that the ImageView is on the left and text on the right.
      */
@@ -71,7 +110,7 @@ public class DialogBox extends HBox {
 
     public static DialogBox getUberErrorDialog(String text, Image img) {
         var db = new DialogBox(text, img);
-        db.dialog.getStyleClass().add("error-label");
+        db.setError(true);
         db.setAlignment(Pos.TOP_LEFT);
         db.flip();
         return db;
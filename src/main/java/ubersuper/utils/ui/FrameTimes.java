@@ -0,0 +1,79 @@
+package ubersuper.utils.ui;
+
+/**
+ * Records the time between recent frames, to check how smoothly the transcript keeps up with
+ * incoming messages.
+ * <p>
+ * Frame timestamps come from an {@link javafx.animation.AnimationTimer}; only the newest
+ * {@value #CAPACITY} intervals are kept. Time spent with the timer stopped is not counted: call
+ * {@link #pause()} when stopping it.
+ */
+public class FrameTimes {
+    private static final int CAPACITY = 512;
+
+    private final long[] intervals = new long[CAPACITY];
+    private int count;
+    private int next;
+    private long last;
+    /** Whether {@link #last} holds the previous frame; timestamps may be negative, so no sentinel. */
+    private boolean hasLast;
+
+    /**
+     * Records a frame drawn at {@code now}.
+     *
+     * @param now frame timestamp in nanoseconds
+     */
+    public void record(long now) {
+        if (hasLast) {
+            intervals[next] = now - last;
+            next = (next + 1) % CAPACITY;
+            count = Math.min(count + 1, CAPACITY);
+        }
+        last = now;
+        hasLast = true;
+    }
+
+    /**
+     * Forgets the last frame, so the gap until the next one is not counted.
+     */
+    public void pause() {
+        hasLast = false;
+    }
+
+    /**
+     * Returns the number of intervals kept.
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Returns the mean time between frames in milliseconds, or 0 if none were recorded.
+     */
+    public double averageMillis() {
+        if (count == 0) {
+            return 0;
+        }
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += intervals[i];
+        }
+        return sum / (count * 1e6);
+    }
+
+    /**
+     * Returns the longest time between frames in milliseconds, or 0 if none were recorded.
+     */
+    public double worstMillis() {
+        long worst = 0;
+        for (int i = 0; i < count; i++) {
+            worst = Math.max(worst, intervals[i]);
+        }
+        return worst / 1e6;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d frames, avg %.1f ms, worst %.1f ms", count, averageMillis(), worstMillis());
+    }
+}
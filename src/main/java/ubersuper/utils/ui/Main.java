@@ -2,6 +2,7 @@ package ubersuper.utils.ui;
 
 import java.io.IOException;
 
+import javafx.animation.AnimationTimer;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -16,24 +17,62 @@ import ubersuper.UberSuper;
 public class Main extends Application {
 
     private final UberSuper uberSuper = new UberSuper();
+    private MainWindow controller;
 
+    /**
+     * Shows the main window. Data loads in the background (see {@link MainWindow#setUberSuper}),
+     * so the time to the first frame does not depend on how much data there is; it is printed
+     * once that frame is drawn.
+     */
     @Override
     public void start(Stage stage) {
+        long started = System.nanoTime();
         try {
             stage.setMinHeight(220);
-            stage.setMinWidth(417);
+            stage.setMinWidth(720);
             FXMLLoader fxmlLoader = new FXMLLoader(Main.class.getResource("/view/MainWindow.fxml"));
             AnchorPane ap = fxmlLoader.load();
             assert ap != null : "MainWindow.fxml should load an AnchorPane";
             Scene scene = new Scene(ap);
             stage.setScene(scene);
-            MainWindow controller = fxmlLoader.<MainWindow>getController();
+            controller = fxmlLoader.<MainWindow>getController();
             assert controller != null : "MainWindow.fxml should have a valid controller";
             controller.setUberSuper(uberSuper); //inject the UberSuper instance
             stage.setTitle("UberSuper");
             stage.show();
+            reportFirstFrame(started);
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Writes the chat history still queued and prints the frame times recorded while messages
+     * were coming in.
+     */
+    @Override
+    public void stop() {
+        if (controller == null) {
+            return;
+        }
+        controller.closeHistory();
+        if (controller.frameTimes().count() > 0) {
+            System.out.printf("(Frames: %s)%n", controller.frameTimes());
+        }
+    }
+
+    /**
+     * Prints how long after {@code started} the first frame was drawn.
+     *
+     * @param started {@link System#nanoTime()} when start-up began
+     */
+    private static void reportFirstFrame(long started) {
+        new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                stop();
+                System.out.printf("(First frame after %d ms)%n", (now - started) / 1_000_000);
+            }
+        }.start();
+    }
 }
@@ -1,32 +1,50 @@
 package ubersuper.utils.ui;
 
-import javafx.animation.FadeTransition;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javafx.animation.AnimationTimer;
 import javafx.animation.PauseTransition;
 import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
-import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.ToggleButton;
 import javafx.scene.image.Image;
 import javafx.scene.layout.AnchorPane;
-import javafx.scene.layout.VBox;
 import javafx.util.Duration;
 import ubersuper.UberSuper;
 import ubersuper.exceptions.UberExceptions;
+import ubersuper.utils.ChatMessage;
+import ubersuper.utils.storage.ChatLog;
 
 /**
  * Controller for the main GUI.
  */
 public class MainWindow extends AnchorPane {
+    /** Most messages held in memory; the rest of the history is read from the log on scrolling. */
+    private static final int WINDOW = 400;
+    /** Messages read from the log at a time. */
+    private static final int PAGE = 100;
+    /** Messages arriving less than this apart are a burst, and appear without fading in. */
+    private static final long BURST_NANOS = 100_000_000L;
+    /** Frames the pulse keeps running after the last message, to time the layout that follows. */
+    private static final int IDLE_FRAMES = 60;
+
     @FXML
     private AnchorPane root;
     @FXML
-    private ScrollPane scrollPane;
+    private ListView<ChatMessage> transcript;
     @FXML
-    private VBox dialogContainer;
+    private TaskTablePanel taskPanel;
+    @FXML
+    private SearchBox searchBox;
     @FXML
     private TextArea userInput;
     @FXML
@@ -37,23 +55,65 @@ public class MainWindow extends AnchorPane {
     private boolean isDark = false;
 
     private UberSuper uberSuper;
+    /** Whether {@link UberSuper#load()} has completed; commands are held back until then. */
+    private boolean loaded;
+
+    /**
+     * A window of at most {@link #WINDOW} consecutive messages of the history; only the ones on
+     * screen have nodes.
+     */
+    private final ObservableList<ChatMessage> messages = FXCollections.observableArrayList();
+    /** Messages below this index have already been shown (and faded in) once. */
+    private int shownUpTo;
+    /** The whole history on disk, or {@code null} if it could not be opened. */
+    private ChatLog log;
+    /** Whether {@link #messages} ends with the newest message. */
+    private boolean atTail = true;
+    /** Whether {@link #messages} starts with the oldest message still in the log. */
+    private boolean atHead;
+    /** Whether a page read is in progress. */
+    private boolean paging;
+    /** Number of tail reads requested; only the newest one is shown. */
+    private int tailReads;
+    /** Whether a tail read is in progress, during which new messages wait for it. */
+    private boolean readingTail;
+
+    /** Messages waiting for the next frame. */
+    private final List<ChatMessage> pending = new ArrayList<>();
+    /** Whether all of {@link #pending} may fade in. */
+    private boolean pendingFade = true;
+    private long lastArrival = System.nanoTime() - BURST_NANOS;
+    private int idleFrames;
+    private final FrameTimes frameTimes = new FrameTimes();
+    /** Adds the pending messages once per frame, and times frames while messages are coming in. */
+    private final AnimationTimer pulse = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            onFrame(now);
+        }
+    };
+
+    /** Suggests keywords, flags, indices and client names while a command is typed. */
+    private CompletionPopup completion;
 
-    private final Image userImage = new Image(this.getClass().getResourceAsStream("/images/User.png"));
-    private final Image uberSuperImage = new Image(this.getClass().getResourceAsStream("/images/Uber.png"));
+    private final Image userImage = Avatars.user();
+    private final Image uberSuperImage = Avatars.uberSuper();
 
     /**
      * Initializes UI behavior after FXML injection.
      * <p>
-     * Binds auto-scroll of the {@link #scrollPane} to the dialog list height, wires keyboard
-     * shortcuts for {@link #userInput} (Enter to send, Shift/Ctrl+Enter for newline),
-     * ensures the theme toggle is present, and applies the initial theme.
+     * Backs the {@link #transcript} with the message list and its cells, shows the last page of
+     * the saved history, wires keyboard shortcuts and command completion for {@link #userInput}
+     * (Enter to send, Shift/Ctrl+Enter for newline, Tab to complete), ensures the theme toggle
+     * is present, and applies the initial theme.
      */
     @FXML
     public void initialize() {
-
-        dialogContainer.heightProperty().addListener((obs, oldVal, newVal) -> {
-            scrollPane.setVvalue(1.0); // always scrolls to bottom on new content
-        });
+        transcript.setItems(messages);
+        transcript.setCellFactory(list -> new ChatMessageCell(userImage, uberSuperImage, this::shown));
+        transcript.setFocusTraversable(false);
+        openHistory();
+        completion = new CompletionPopup(userInput);
         // Keyboard shortcuts: Enter to send, Shift+Enter for newline
         userInput.setOnKeyPressed(event -> {
             switch (event.getCode()) {
@@ -74,38 +134,69 @@ public class MainWindow extends AnchorPane {
     }
 
     /**
-     * Injects the application core and shows the initial greeting from the bot.
+     * Injects the application core and starts loading its data in the background.
+     * <p>
+     * Returns at once, so the window is shown without waiting for the data files. The greeting,
+     * task table, file watching and reminders follow on the JavaFX thread once loading is done.
      *
      * @param us the {@link UberSuper} instance that generates responses
      */
     public void setUberSuper(UberSuper us) {
         uberSuper = us;
-        Node node = DialogBox.getUberDialog(uberSuper.greet(), uberSuperImage);
-        dialogContainer.getChildren().add(node);
-        fadeIn(node);
+        append(ChatMessage.bot(" Hello! Loading your tasks and clients..."));
+        uberSuper.load().whenCompleteAsync((greeting, error) -> {
+            if (error != null) {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                append(ChatMessage.error("Could not load your data: " + cause.getMessage()));
+                return;
+            }
+            loaded = true;
+            append(ChatMessage.bot(greeting));
+            taskPanel.bind(uberSuper.getTaskList());
+            searchBox.bind(uberSuper.getTaskList(), uberSuper.getClientList());
+            completion.bind(uberSuper.getTaskList(), uberSuper.getClientList());
+            uberSuper.watchDataFiles(Platform::runLater, this::showNotice);
+            uberSuper.startReminders(r -> Platform.runLater(() -> showNotice(r.message())));
+        }, Platform::runLater);
+    }
+
+    /**
+     * Appends a bot message that was not triggered by user input (e.g., a reload notice).
+     *
+     * @param text message to show
+     */
+    private void showNotice(String text) {
+        append(ChatMessage.bot(text));
     }
 
     /**
      * Handles sending a message from the input field.
      * <p>
-     * Appends a user dialog and the bot reply to {@link #dialogContainer},
-     * animates them in, and clears {@link #userInput}.
+     * Appends the user message and the bot reply to the {@link #transcript} and clears
+     * {@link #userInput}. Input of several non-blank lines runs as one batch (see
+     * {@link #handleBatch(String, List)}).
      */
     @FXML
     private void handleUserInput() {
         String input = userInput.getText();
-        Node userNode = DialogBox.getUserDialog(input, userImage);
-        Node uberNode = null;
+        if (!loaded) {
+            showNotice("Still loading your data; please send that again in a moment.");
+            return;
+        }
+        List<String> lines = input.lines().filter(line -> !line.isBlank()).toList();
+        if (lines.size() > 1) {
+            handleBatch(input, lines);
+            return;
+        }
+        ChatMessage request = ChatMessage.user(input);
+        ChatMessage reply = null;
         try {
-            String response = uberSuper.getResponse(input);
-            uberNode = DialogBox.getUberDialog(response, uberSuperImage);
+            reply = ChatMessage.bot(uberSuper.getResponse(input));
         } catch (UberExceptions e) {
-            uberNode = DialogBox.getUberErrorDialog(e.getMessage(), uberSuperImage);
+            reply = ChatMessage.error(e.getMessage());
         } finally {
-            assert uberNode != null : "userNode and uberNode should not be null";
-            dialogContainer.getChildren().addAll(userNode, uberNode);
-            fadeIn(userNode);
-            fadeIn(uberNode);
+            assert reply != null : "reply should not be null";
+            append(request, reply);
             userInput.clear();
             // Exit if user typed 'bye' after a short delay to allow UI to render
             if (input.trim().equalsIgnoreCase("bye")) {
@@ -117,15 +208,288 @@ public class MainWindow extends AnchorPane {
     }
 
     /**
-     * Plays a brief fade-in animation for the provided node.
+     * Runs pasted lines as one batch with {@link UberSuper#runBatch(List)} and shows a single
+     * summary (or the error that rolled the batch back) instead of one reply per line. The
+     * messages appear without fading in.
+     *
+     * @param input the text as typed
+     * @param lines its non-blank lines
+     */
+    private void handleBatch(String input, List<String> lines) {
+        ChatMessage reply;
+        try {
+            reply = ChatMessage.bot(uberSuper.runBatch(lines));
+        } catch (UberExceptions e) {
+            reply = ChatMessage.error(e.getMessage());
+        }
+        queue(false, ChatMessage.user(input), reply);
+        userInput.clear();
+    }
+
+    /**
+     * Adds messages to the end of the transcript on the next frame, fading them in unless they
+     * are part of a burst.
+     *
+     * @param added messages in display order
+     */
+    private void append(ChatMessage... added) {
+        queue(true, added);
+    }
+
+    /**
+     * Holds messages until the next frame, so that however many arrive within one frame, the
+     * transcript changes, lays out and scrolls once. Messages arriving within
+     * {@link #BURST_NANOS} of the previous ones do not fade in.
+     *
+     * @param fade  whether the messages may fade in
+     * @param added messages in display order
+     */
+    private void queue(boolean fade, ChatMessage... added) {
+        long now = System.nanoTime();
+        boolean burst = now - lastArrival < BURST_NANOS;
+        lastArrival = now;
+        Collections.addAll(pending, added);
+        pendingFade &= fade && !burst;
+        idleFrames = 0;
+        pulse.start();
+    }
+
+    private void onFrame(long now) {
+        frameTimes.record(now);
+        if (!pending.isEmpty()) {
+            add(pendingFade, pending.toArray(new ChatMessage[0]));
+            pending.clear();
+            pendingFade = true;
+        } else if (++idleFrames >= IDLE_FRAMES) {
+            pulse.stop();
+            frameTimes.pause();
+        }
+    }
+
+    /**
+     * Returns the times between frames recorded while messages were being added.
+     */
+    public FrameTimes frameTimes() {
+        return frameTimes;
+    }
+
+    /**
+     * Logs messages and adds them to the end of the transcript, first moving the window back to
+     * the newest messages if the user had scrolled far up, and scrolls down to them.
+     *
+     * @param fade  whether the messages fade in
+     * @param added messages in display order
+     */
+    private void add(boolean fade, ChatMessage... added) {
+        for (int i = 0; i < added.length; i++) {
+            added[i] = store(added[i]);
+        }
+        if (!atTail || readingTail) {
+            readTail(fade, added);
+            return;
+        }
+        messages.addAll(added);
+        if (!fade) {
+            shownUpTo = messages.size();
+        }
+        trimFront();
+        transcript.scrollTo(messages.size() - 1);
+    }
+
+    /**
+     * Appends {@code message} to the history log, if there is one. The log writes it on its own
+     * thread, so the frame does not wait for the disk.
+     *
+     * @return the message with its log position, or as given if it could not be logged
+     */
+    private ChatMessage store(ChatMessage message) {
+        if (log == null) {
+            return message;
+        }
+        try {
+            return log.append(message);
+        } catch (IOException e) {
+            System.out.print("Could not save chat history!");
+            log = null;
+            return message;
+        }
+    }
+
+    /**
+     * Opens the history log and starts reading its last page, which goes in front of whatever
+     * messages arrive in the meantime.
+     */
+    private void openHistory() {
+        try {
+            log = ChatLog.open();
+        } catch (IOException e) {
+            System.out.print("Could not open chat history!");
+            log = null;
+            return;
+        }
+        paging = true;
+        log.before(log.end(), PAGE).whenCompleteAsync((page, error) -> {
+            paging = false;
+            if (error != null) {
+                System.out.print("Could not read chat history!");
+                return;
+            }
+            atHead = page.messages().size() < PAGE;
+            prepend(page.messages());
+            transcript.scrollTo(Math.max(0, messages.size() - 1));
+        }, Platform::runLater);
+    }
+
+    /**
+     * Writes the messages still queued for the history log and closes it. Call when the
+     * application stops.
+     */
+    public void closeHistory() {
+        if (log == null) {
+            return;
+        }
+        try {
+            log.close();
+        } catch (IOException e) {
+            System.out.print("Could not save chat history!");
+        }
+        log = null;
+    }
+
+    /**
+     * Replaces the window with the newest page of the log, which ends with the just logged
+     * {@code added} messages, once it has been read. Messages arriving before then start another
+     * read, and only the newest read is shown.
+     */
+    private void readTail(boolean fade, ChatMessage[] added) {
+        if (log == null) {
+            messages.setAll(added);
+            shownUpTo = fade ? 0 : messages.size();
+            atHead = false;
+            atTail = true;
+            transcript.scrollTo(messages.size() - 1);
+            return;
+        }
+        int request = ++tailReads;
+        readingTail = true;
+        log.before(log.end(), PAGE).whenCompleteAsync((page, error) -> {
+            if (request != tailReads) {
+                return;
+            }
+            readingTail = false;
+            if (error != null) {
+                messages.setAll(added);
+                atHead = false;
+            } else {
+                messages.setAll(page.messages());
+                atHead = page.messages().size() < PAGE;
+            }
+            shownUpTo = fade ? Math.max(0, messages.size() - added.length) : messages.size();
+            atTail = true;
+            transcript.scrollTo(messages.size() - 1);
+        }, Platform::runLater);
+    }
+
+    /**
+     * Called when the message at {@code index} is on screen. Pages in older or newer messages when
+     * the user reaches either end of the window, and returns whether the message is shown for the
+     * first time, so that a cell fades in new messages but not ones scrolled back into view.
+     */
+    private boolean shown(int index) {
+        if (!paging && !readingTail && index == 0 && !atHead) {
+            readOlder();
+        } else if (!paging && !readingTail && index == messages.size() - 1 && !atTail) {
+            readNewer();
+        }
+        if (index < shownUpTo) {
+            return false;
+        }
+        shownUpTo = index + 1;
+        return true;
+    }
+
+    /**
+     * Starts reading the page before the window; once read, it goes into the front of the window
+     * and the first message shown stays where it was.
+     */
+    private void readOlder() {
+        if (log == null || messages.isEmpty() || messages.get(0).position() < 0) {
+            return;
+        }
+        ChatMessage first = messages.get(0);
+        paging = true;
+        log.before(first.position(), PAGE).whenCompleteAsync((page, error) -> {
+            paging = false;
+            if (error != null || readingTail || messages.isEmpty() || messages.get(0) != first) {
+                return;
+            }
+            atHead = page.messages().size() < PAGE;
+            if (!page.messages().isEmpty()) {
+                prepend(page.messages());
+                transcript.scrollTo(page.messages().size());
+            }
+        }, Platform::runLater);
+    }
+
+    /**
+     * Adds {@code older} messages, which come just before the window, to its front as already
+     * shown, dropping as many of the newest messages as needed to stay within {@link #WINDOW}.
+     */
+    private void prepend(List<ChatMessage> older) {
+        messages.addAll(0, older);
+        shownUpTo += older.size();
+        int excess = messages.size() - WINDOW;
+        if (excess > 0) {
+            messages.remove(messages.size() - excess, messages.size());
+            atTail = false;
+        }
+    }
+
+    /**
+     * Starts reading the page after the window; once read, it goes onto the end of the window,
+     * dropping as many of the oldest messages as needed to stay within {@link #WINDOW}, and the
+     * last message shown stays on screen.
+     */
+    private void readNewer() {
+        if (log == null || messages.isEmpty()) {
+            return;
+        }
+        ChatMessage last = messages.get(messages.size() - 1);
+        paging = true;
+        // the page starts with the last message itself
+        log.after(last.position(), PAGE + 1).whenCompleteAsync((page, error) -> {
+            paging = false;
+            if (error != null || readingTail || atTail || messages.isEmpty()
+                    || messages.get(messages.size() - 1) != last) {
+                return;
+            }
+            List<ChatMessage> newer = page.messages();
+            atTail = newer.size() <= PAGE;
+            if (newer.size() <= 1) {
+                return;
+            }
+            messages.addAll(newer.subList(1, newer.size()));
+            shownUpTo = Math.max(shownUpTo, messages.size());
+            int lastIndex = messages.size() - newer.size();
+            int dropped = trimFront();
+            transcript.scrollTo(Math.max(0, lastIndex - dropped));
+        }, Platform::runLater);
+    }
+
+    /**
+     * Drops the oldest messages beyond {@link #WINDOW}; they remain in the log.
      *
-     * @param node the UI element to animate
+     * @return number of messages dropped
      */
-    private void fadeIn(Node node) {
-        FadeTransition ft = new FadeTransition(Duration.millis(180), node);
-        ft.setFromValue(0.0);
-        ft.setToValue(1.0);
-        ft.play();
+    private int trimFront() {
+        int excess = messages.size() - WINDOW;
+        if (excess <= 0) {
+            return 0;
+        }
+        messages.remove(0, excess);
+        shownUpTo = Math.max(0, shownUpTo - excess);
+        atHead = false;
+        return excess;
     }
 
     /**
@@ -0,0 +1,288 @@
+package ubersuper.utils.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import javafx.application.Platform;
+import javafx.geometry.Bounds;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.scene.input.KeyCode;
+import javafx.stage.Popup;
+import ubersuper.clients.Client;
+import ubersuper.clients.ClientList;
+import ubersuper.tasks.Task;
+import ubersuper.tasks.TaskList;
+import ubersuper.utils.DebouncedQuery;
+import ubersuper.utils.Strings;
+
+/**
+ * Search field that lists matching tasks and clients while the user types.
+ * <p>
+ * Matching follows {@code findtask} and {@code findclient}: an item matches if its description
+ * (or client name) contains any of the typed words, ignoring case. Each keystroke submits a
+ * {@link DebouncedQuery}: a keystroke after a pause is searched at once, one within a frame of the
+ * previous keystroke waits out that frame, and a scan that a newer one has made stale is
+ * cancelled. Scans run in the background over array snapshots of the lists, which are only
+ * retaken when a list's {@link TaskList#version() version} has moved on. A scan that runs longer
+ * than {@value #PARTIAL_MILLIS} ms shows the matches found so far every {@value #PARTIAL_MILLIS} ms,
+ * so a cold scan of a very large list (some 30 ms for 300k tasks) still shows results within a
+ * frame.
+ * <p>
+ * Queries are incremental: while the user only lengthens the last word, and the lists have not
+ * changed, the new matches are a subset of the shown ones, so only those are rescanned. Matches
+ * show in a popup {@link ListView}, which renders only the visible rows however many there are.
+ */
+public class SearchBox extends TextField {
+    private static final long DEBOUNCE_MILLIS = 15;
+    /** Items scanned between checks for a newer query. */
+    private static final int CHECK_EVERY = 4096;
+    /** Longest a scan runs before it shows the matches found so far. */
+    private static final long PARTIAL_MILLIS = 8;
+
+    private final ListView<Hit> results = new ListView<>();
+    private final Label noMatches = new Label("No matches");
+    private final Popup popup = new Popup();
+    private final DebouncedQuery<Matches> query = new DebouncedQuery<>(DEBOUNCE_MILLIS, Platform::runLater,
+            this::show, this::showError);
+
+    private TaskList tasks;
+    private ClientList clients;
+    private Task[] taskSnapshot;
+    private long taskVersion;
+    private Client[] clientSnapshot;
+    private long clientVersion;
+    /** Matches currently shown, or {@code null}. */
+    private Matches shown;
+
+    /**
+     * Creates an inactive search field; call {@link #bind(TaskList, ClientList)} to enable it.
+     */
+    public SearchBox() {
+        setPromptText("Search tasks and clients");
+        getStyleClass().add("search-box");
+        setDisable(true);
+        results.setPrefSize(360.0, 240.0);
+        results.setPlaceholder(noMatches);
+        popup.getContent().add(results);
+        popup.setAutoHide(true);
+        textProperty().addListener((obs, oldText, text) -> search(text));
+        setOnKeyPressed(event -> {
+            if (event.getCode() == KeyCode.ESCAPE) {
+                clear();
+            }
+        });
+    }
+
+    /**
+     * Starts searching the given lists. Call on the JavaFX application thread, which must also be
+     * the thread that mutates them.
+     *
+     * @param tasks   tasks to search
+     * @param clients clients to search
+     */
+    public void bind(TaskList tasks, ClientList clients) {
+        this.tasks = tasks;
+        this.clients = clients;
+        taskSnapshot = tasks.toArray(new Task[0]);
+        taskVersion = tasks.version();
+        clientSnapshot = clients.toArray(new Client[0]);
+        clientVersion = clients.version();
+        setDisable(false);
+    }
+
+    private void search(String text) {
+        String trimmed = text == null ? "" : text.strip();
+        if (tasks == null || trimmed.isEmpty()) {
+            query.cancel();
+            popup.hide();
+            shown = null;
+            return;
+        }
+        if (tasks.version() != taskVersion) {
+            taskSnapshot = tasks.toArray(new Task[0]);
+            taskVersion = tasks.version();
+        }
+        if (clients.version() != clientVersion) {
+            clientSnapshot = clients.toArray(new Client[0]);
+            clientVersion = clients.version();
+        }
+        String[] keywords = trimmed.split("\\s+");
+        Task[] taskScan = taskSnapshot;
+        Client[] clientScan = clientSnapshot;
+        Matches base = shown;
+        Progress progress = new Progress(hits -> query.offer(new Matches(keywords, taskScan, clientScan, hits,
+                false)));
+        if (base != null && base.complete && base.tasks == taskScan && base.clients == clientScan
+                && base.narrowsTo(keywords)) {
+            query.submit(() -> new Matches(keywords, taskScan, clientScan, refine(keywords, base.hits, progress),
+                    true));
+        } else {
+            query.submit(() -> new Matches(keywords, taskScan, clientScan,
+                    find(keywords, taskScan, clientScan, progress), true));
+        }
+    }
+
+    /**
+     * Scans the snapshots for items matching any keyword, stopping early if the query is superseded.
+     */
+    private static List<Hit> find(String[] keywords, Task[] tasks, Client[] clients, Progress progress) {
+        List<Hit> hits = new ArrayList<>();
+        for (int i = 0; i < tasks.length; i++) {
+            progress.check(i, hits);
+            if (matchesAny(tasks[i].desc(), keywords)) {
+                hits.add(new Hit("Task", i + 1, tasks[i], tasks[i].desc()));
+            }
+        }
+        for (int i = 0; i < clients.length; i++) {
+            progress.check(i, hits);
+            if (matchesAny(clients[i].getName(), keywords)) {
+                hits.add(new Hit("Client", i + 1, clients[i].getName(), clients[i].getName()));
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Keeps the earlier matches that still match, for a query that narrows the earlier one.
+     */
+    private static List<Hit> refine(String[] keywords, List<Hit> earlier, Progress progress) {
+        List<Hit> hits = new ArrayList<>();
+        for (int i = 0; i < earlier.size(); i++) {
+            progress.check(i, hits);
+            Hit hit = earlier.get(i);
+            if (matchesAny(hit.text, keywords)) {
+                hits.add(hit);
+            }
+        }
+        return hits;
+    }
+
+    private static boolean matchesAny(String text, String[] keywords) {
+        for (String keyword : keywords) {
+            if (Strings.containsIgnoreCase(text, keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void show(Matches matches) {
+        if (getText() == null || getText().isBlank()) {
+            return;
+        }
+        shown = matches;
+        results.setPlaceholder(noMatches);
+        results.getItems().setAll(matches.hits);
+        results.scrollTo(0);
+        showPopup();
+    }
+
+    private void showError(Exception e) {
+        shown = null;
+        results.setPlaceholder(new Label("Search failed: " + e.getMessage()));
+        results.getItems().clear();
+        showPopup();
+    }
+
+    private void showPopup() {
+        Bounds bounds = localToScreen(getBoundsInLocal());
+        if (!popup.isShowing() && bounds != null) {
+            popup.show(this, bounds.getMinX(), bounds.getMaxY());
+        }
+    }
+
+    /**
+     * Checks a running scan for a newer query every {@value #CHECK_EVERY} items, and hands the
+     * matches found so far to the user whenever {@value #PARTIAL_MILLIS} ms have passed since the
+     * scan started or last did so. Used by one scan, on the query thread.
+     */
+    private static final class Progress {
+        private final Consumer<List<Hit>> partial;
+        private boolean started;
+        private long last;
+
+        Progress(Consumer<List<Hit>> partial) {
+            this.partial = partial;
+        }
+
+        void check(int scanned, List<Hit> hits) {
+            if (scanned % CHECK_EVERY != 0) {
+                return;
+            }
+            DebouncedQuery.checkCancelled();
+            long now = System.nanoTime();
+            if (!started) {
+                started = true;
+                last = now;
+            } else if (now - last >= TimeUnit.MILLISECONDS.toNanos(PARTIAL_MILLIS) && !hits.isEmpty()) {
+                partial.accept(List.copyOf(hits));
+                last = now;
+            }
+        }
+    }
+
+    /**
+     * The result of one query: its keywords, the snapshots it scanned and what matched. A partial
+     * result holds only the matches found so far, so later queries never narrow it.
+     */
+    private static final class Matches {
+        private final String[] keywords;
+        private final Task[] tasks;
+        private final Client[] clients;
+        private final List<Hit> hits;
+        private final boolean complete;
+
+        Matches(String[] keywords, Task[] tasks, Client[] clients, List<Hit> hits, boolean complete) {
+            this.keywords = keywords;
+            this.tasks = tasks;
+            this.clients = clients;
+            this.hits = hits;
+            this.complete = complete;
+        }
+
+        /**
+         * Returns whether everything matching {@code next} also matches these keywords: {@code next}
+         * has the same words, except that the last one may be longer.
+         */
+        boolean narrowsTo(String[] next) {
+            int last = keywords.length - 1;
+            if (next.length != keywords.length) {
+                return false;
+            }
+            for (int k = 0; k < last; k++) {
+                if (!next[k].equalsIgnoreCase(keywords[k])) {
+                    return false;
+                }
+            }
+            return next[last].regionMatches(true, 0, keywords[last], 0, keywords[last].length());
+        }
+    }
+
+    /**
+     * One match, shown as e.g. {@code "Task 3: [T][ ] read book"}. The item is rendered only when
+     * its row scrolls into view.
+     */
+    private static final class Hit {
+        private final String kind;
+        private final int number;
+        private final Object item;
+        /** The text that was matched: the description or client name. */
+        private final String text;
+
+        Hit(String kind, int number, Object item, String text) {
+            this.kind = kind;
+            this.number = number;
+            this.item = item;
+            this.text = text;
+        }
+
+        @Override
+        public String toString() {
+            return kind + " " + number + ": " + item;
+        }
+    }
+}
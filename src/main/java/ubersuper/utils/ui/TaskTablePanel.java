@@ -0,0 +1,219 @@
+package ubersuper.utils.ui;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import javafx.application.Platform;
+import javafx.beans.Observable;
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
+import javafx.geometry.Insets;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import ubersuper.tasks.Deadline;
+import ubersuper.tasks.Event;
+import ubersuper.tasks.Task;
+import ubersuper.tasks.TaskList;
+import ubersuper.utils.Strings;
+import ubersuper.utils.change.ListChange;
+
+/**
+ * Side panel showing the tasks in a sortable, filterable {@link TableView}.
+ * <p>
+ * The table keeps one {@link Row} per task, in list order, and follows {@link TaskList#changes()}
+ * one change at a time instead of rebuilding: an add or delete inserts or removes a single row,
+ * and a mark or unmark flips that row's done flag. Sorting and filtering are views over the same
+ * rows ({@link SortedList} over {@link FilteredList}), so neither copies the list, and the table
+ * only creates cells for the rows on screen.
+ */
+public class TaskTablePanel extends VBox {
+    private final ObservableList<Row> rows = FXCollections.observableArrayList(
+            row -> new Observable[]{row.doneProperty()});
+    private final FilteredList<Row> filtered = new FilteredList<>(rows);
+    private final TableView<Row> table = new TableView<>();
+    private final TextField filter = new TextField();
+    private final CheckBox hideDone = new CheckBox("Hide done");
+
+    /**
+     * Creates an empty panel; call {@link #bind(TaskList)} to fill it.
+     */
+    public TaskTablePanel() {
+        super(8.0);
+        getStyleClass().add("task-panel");
+        setPadding(new Insets(12.0));
+
+        table.getColumns().setAll(
+                column("Type", 48, row -> row.task.type().getSymbol()),
+                doneColumn(),
+                column("Description", 160, row -> row.task.desc()),
+                dateColumn("Date", Row::start),
+                dateColumn("Until", Row::end));
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        table.setPlaceholder(new Label("No tasks"));
+        SortedList<Row> sorted = new SortedList<>(filtered);
+        sorted.comparatorProperty().bind(table.comparatorProperty());
+        table.setItems(sorted);
+        VBox.setVgrow(table, Priority.ALWAYS);
+
+        filter.setPromptText("Filter by description or client");
+        HBox.setHgrow(filter, Priority.ALWAYS);
+        filtered.predicateProperty().bind(Bindings.<Predicate<Row>>createObjectBinding(() -> {
+            String text = filter.getText();
+            boolean hide = hideDone.isSelected();
+            return row -> row.matches(text, hide);
+        }, filter.textProperty(), hideDone.selectedProperty()));
+
+        getChildren().setAll(new HBox(8.0, filter, hideDone), table);
+    }
+
+    /**
+     * Shows the tasks of {@code tasks} and keeps following its changes. Call on the JavaFX
+     * application thread, which must also be the thread that mutates {@code tasks}, so that the
+     * snapshot taken here and the changes that follow line up.
+     *
+     * @param tasks list to show
+     */
+    public void bind(TaskList tasks) {
+        Row[] snapshot = new Row[tasks.size()];
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = new Row(tasks.get(i));
+        }
+        rows.setAll(snapshot);
+        tasks.changes().subscribe(new Flow.Subscriber<ListChange<Task>>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ListChange<Task> change) {
+                Platform.runLater(() -> apply(change));
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+    }
+
+    private void apply(ListChange<Task> change) {
+        switch (change.type()) {
+        case ADDED:
+            rows.add(change.index(), new Row(change.item()));
+            break;
+        case REMOVED:
+            rows.remove(change.index());
+            break;
+        default:
+            rows.get(change.index()).refresh();
+            break;
+        }
+    }
+
+    private static TableColumn<Row, String> column(String title, double width, Function<Row, String> text) {
+        TableColumn<Row, String> column = new TableColumn<>(title);
+        column.setPrefWidth(width);
+        column.setCellValueFactory(cell -> new ReadOnlyStringWrapper(text.apply(cell.getValue())));
+        return column;
+    }
+
+    private static TableColumn<Row, Boolean> doneColumn() {
+        TableColumn<Row, Boolean> column = new TableColumn<>("Done");
+        column.setPrefWidth(48);
+        column.setCellValueFactory(cell -> cell.getValue().doneProperty());
+        column.setCellFactory(c -> new TableCell<>() {
+            @Override
+            protected void updateItem(Boolean done, boolean empty) {
+                super.updateItem(done, empty);
+                setText(empty || done == null || !done ? null : "X");
+            }
+        });
+        return column;
+    }
+
+    /**
+     * Creates a column that shows a date of the row's task the way the task itself prints it, and
+     * sorts by the date itself (tasks without one last).
+     */
+    private static TableColumn<Row, Row> dateColumn(String title, Function<Row, LocalDateTime> date) {
+        TableColumn<Row, Row> column = new TableColumn<>(title);
+        column.setPrefWidth(96);
+        column.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue()));
+        column.setComparator(Comparator.comparing(date, Comparator.nullsLast(Comparator.naturalOrder())));
+        column.setCellFactory(c -> new TableCell<>() {
+            @Override
+            protected void updateItem(Row row, boolean empty) {
+                super.updateItem(row, empty);
+                LocalDateTime time = empty || row == null ? null : date.apply(row);
+                setText(time == null ? null : row.task.display(time));
+            }
+        });
+        return column;
+    }
+
+    /**
+     * One task as shown in the table. Only the done flag can change; everything else of a task
+     * is fixed once it is created.
+     */
+    static final class Row {
+        private final Task task;
+        private final ReadOnlyBooleanWrapper done;
+
+        Row(Task task) {
+            this.task = task;
+            this.done = new ReadOnlyBooleanWrapper(task.isDone());
+        }
+
+        ReadOnlyBooleanProperty doneProperty() {
+            return done.getReadOnlyProperty();
+        }
+
+        void refresh() {
+            done.set(task.isDone());
+        }
+
+        LocalDateTime start() {
+            if (task instanceof Deadline) {
+                return ((Deadline) task).getDeadline();
+            }
+            return task instanceof Event ? ((Event) task).getStartTime() : null;
+        }
+
+        LocalDateTime end() {
+            return task instanceof Event ? ((Event) task).getEndTime() : null;
+        }
+
+        boolean matches(String text, boolean hideDone) {
+            if (hideDone && done.get()) {
+                return false;
+            }
+            if (text == null || text.isBlank()) {
+                return true;
+            }
+            String needle = text.strip();
+            return Strings.containsIgnoreCase(task.desc(), needle)
+                    || task.client() != null && Strings.containsIgnoreCase(task.client(), needle);
+        }
+    }
+}
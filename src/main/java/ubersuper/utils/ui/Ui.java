@@ -4,8 +4,12 @@ import ubersuper.clients.ClientList;
 import ubersuper.exceptions.UberExceptions;
 import ubersuper.tasks.TaskList;
 import ubersuper.utils.LoadedResult;
+import ubersuper.utils.LruCache;
 import ubersuper.utils.Parser;
+import ubersuper.utils.command.CommandTable;
 import ubersuper.utils.command.CommandType;
+import ubersuper.utils.response.Response;
+import ubersuper.utils.response.ResponseKind;
 
 
 /**
@@ -23,8 +27,12 @@ public class Ui {
 
     private static final String BOT_NAME = "UberSuper";
     private static final String LINE = "------------------------------------------------------------";
+    /** Built once; it never changes and is shown with every unknown command. */
+    private static final String HELP = buildHelp();
     private final TaskList tasks;
     private final ClientList clients;
+    /** Replies to read-only commands, keyed by command, list version and arguments. */
+    private final LruCache<String, Response> readOnlyReplies = new LruCache<>(32);
 
     /**
      * @param tasks the task list to operate on when handling commands
@@ -45,47 +53,95 @@ public class Ui {
      * <p>
      * If a command is unknown or a handler throws an {@link UberExceptions},
      * an error message is printed and the loop continues to read the next line.
+     * <p>
+     * The line is dispatched once; handlers get the result and read their arguments from where the
+     * command word ends, so the line is neither trimmed nor dispatched again.
+     *
+     * @param input user input line
+     * @return structured reply; render it (e.g. with {@link ubersuper.utils.response.TextRenderer}) to show it
      */
-    public String echo(String raw) throws UberExceptions {
-        String input = raw.trim();
-        CommandType command = Parser.fromInput(input);
+    public Response echo(String input) throws UberExceptions {
+        int dispatched = CommandTable.dispatch(input);
+        CommandType command = CommandTable.command(dispatched);
         assert command != null : "Parser must return a valid CommandType";
 
         switch (command) {
         case BYE:
-            return goodBye();
+            return Response.text(ResponseKind.GOODBYE, goodBye());
         case TASKLIST:
-            return tasks.list();
+        case ONDATE:
+        case FINDTASK:
+            return readOnly(command, tasks.version(), input, dispatched);
+        case CLIENTLIST:
+        case FINDCLIENT:
+            return readOnly(command, clients.version(), input, dispatched);
         case MARK:
-            return tasks.mark(input);
+            return tasks.mark(input, dispatched);
         case UNMARK:
-            return tasks.unmark(input);
+            return tasks.unmark(input, dispatched);
         case TODO:
-            return tasks.todo(input);
+            return tasks.todo(input, dispatched);
         case DEADLINE:
-            return tasks.deadline(input);
+            return tasks.deadline(input, dispatched);
         case EVENT:
-            return tasks.event(input);
+            return tasks.event(input, dispatched);
         case DELETETASK:
-            return tasks.delete(input);
-        case ONDATE:
-            return tasks.onDate(input);
-        case FINDTASK:
-            return tasks.find(input);
-        case FINDCLIENT:
-            return clients.find(input);
+            return tasks.delete(input, dispatched);
         case DELETECLIENT:
-            return clients.delete(input);
-        case CLIENTLIST:
-            return clients.list();
+            return clients.delete(input, dispatched);
         case ADDCLIENT:
-            return clients.add(input);
+            return clients.add(input, dispatched);
         case UNKNOWN:
         default:
             throw new UberExceptions("Unknown command.\n\n" + Ui.help());
         }
     }
 
+    /**
+     * Answers a read-only command from the cache while its list is unchanged.
+     * <p>
+     * The key is the command, the list's {@code version} and the argument text as the handler reads
+     * it: runs of whitespace count as one space, and the searches ignore case, so
+     * {@code "LISTTASK"} and {@code "listtask"}, or {@code "findtask  Book"} and
+     * {@code "findtask book"}, share an entry. Any mutation bumps the version, which retires every
+     * older entry at once; they then age out of the LRU cache. Failed commands are not cached.
+     */
+    private Response readOnly(CommandType command, long version, String input, int dispatched) {
+        String key = key(command, version, input, CommandTable.argumentStart(dispatched));
+        Response reply = readOnlyReplies.get(key);
+        if (reply == null) {
+            reply = switch (command) {
+            case TASKLIST -> tasks.list(input, dispatched);
+            case ONDATE -> tasks.onDate(input, dispatched);
+            case FINDTASK -> tasks.find(input, dispatched);
+            case CLIENTLIST -> clients.list();
+            default -> clients.find(input, dispatched);
+            };
+            readOnlyReplies.put(key, reply);
+        }
+        return reply;
+    }
+
+    private static String key(CommandType command, long version, String input, int argumentStart) {
+        boolean foldCase = command == CommandType.FINDTASK || command == CommandType.FINDCLIENT;
+        StringBuilder key = new StringBuilder(input.length() - argumentStart + 24);
+        key.append(command.ordinal()).append(':').append(version).append(':');
+        boolean gap = false;
+        for (int i = argumentStart; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (Character.isWhitespace(c)) {
+                gap = true;
+                continue;
+            }
+            if (gap) {
+                key.append(' ');
+                gap = false;
+            }
+            key.append(foldCase ? Character.toLowerCase(c) : c);
+        }
+        return key.toString();
+    }
+
     /**
      * Prints a standard horizontal divider line used by the UI.
      * <p>
@@ -109,54 +165,55 @@ public class Ui {
 
 
     /**
-     * Prints the initial greeting and, if applicable, a summary of the load tasksResults.
+     * Prints the initial greeting with a summary of the load results.
      * <p>
-     * When prior tasks are found on disk, shows how many were loaded and how many
-     * lines were skipped due to errors, then prints the current list of tasks.
-     * Otherwise, informs the user that the list is empty.
+     * For each list, shows how many items were loaded and how many lines were skipped due to
+     * errors, or that the list is empty; the items themselves are left to {@code listtask} and
+     * {@code listclient}, so the greeting stays short however much data there is. Ends with how
+     * long loading took and how much memory sharing repeated strings saved, if any.
      *
      * @param tasksResult   the outcome of loading tasks from disk
      * @param clientsResult the outcome of loading clients from disk
+     * @param loadMillis    how long loading both lists took, in milliseconds
      */
-    public String greet(LoadedResult<TaskList> tasksResult, LoadedResult<ClientList> clientsResult) {
+    public String greet(LoadedResult<TaskList> tasksResult, LoadedResult<ClientList> clientsResult,
+                        long loadMillis) {
         String message = "";
-        // show tasksResult if available, if not, do standard greeting
         message += " Hello! I'm " + BOT_NAME + "\n" + " What can I do for you?" + "\n" + LINE + "\n";
-        if (tasksResult.listSize() > 0 || tasksResult.skipped() > 0) {
-
-            message += String.format("(Loaded %d tasks from disk%s)\n",
-                    tasksResult.listSize(),
-                    tasksResult.skipped() > 0
-                            ? String.format(", skipped %d corrupted lines",
-                            tasksResult.skipped())
-                            : "");
-            message += tasksResult.list().list();
-        } else {
-            message += " There are currently no tasks in your list \n";
-        }
-        message += printLine();
-
-        // show clientsResult if available, if not, do standard greeting
-        if (clientsResult.listSize() > 0 || clientsResult.skipped() > 0) {
-            message += String.format("(Loaded %d clients from disk%s)\n",
-                    clientsResult.listSize(),
-                    clientsResult.skipped() > 0
-                            ? String.format(", skipped %d corrupted lines",
-                            clientsResult.skipped())
-                            : "");
-            message += clientsResult.list().list();
-        } else {
-            message += " There are currently no clients in your list \n";
+        message += loadSummary(tasksResult, "tasks", "listtask");
+        message += loadSummary(clientsResult, "clients", "listclient");
+        message += String.format("(Loaded in %d ms)\n", loadMillis);
+
+        // report what sharing repeated strings saved while loading
+        int shared = tasksResult.list().strings().duplicates() + clientsResult.list().strings().duplicates();
+        long saved = tasksResult.list().strings().savedBytes() + clientsResult.list().strings().savedBytes();
+        if (shared > 0) {
+            message += String.format("(Shared %d repeated strings while loading, saving about %s)\n",
+                    shared, saved >= 10_240 ? saved / 1024 + " KB" : saved + " bytes");
         }
         return message;
     }
 
+    private static String loadSummary(LoadedResult<?> result, String noun, String listCommand) {
+        if (result.listSize() == 0 && result.skipped() == 0) {
+            return " There are currently no " + noun + " in your list \n";
+        }
+        return String.format("(Loaded %d %s from disk%s; type '%s' to see them)\n",
+                result.listSize(), noun,
+                result.skipped() > 0 ? String.format(", skipped %d corrupted lines", result.skipped()) : "",
+                listCommand);
+    }
+
     /**
      * Returns a formatted help message describing all available commands grouped by domain.
      *
      * @return multi-line help text for task and client commands
      */
     public static String help() {
+        return HELP;
+    }
+
+    private static String buildHelp() {
         String nl = "\n";
         StringBuilder sb = new StringBuilder();
         sb.append("Here are the available commands:" + nl + nl);
@@ -170,6 +227,8 @@ public class Ui {
         sb.append(LINE + nl);
         sb.append("'event <d> /from <s> /to <e>' - Add an event with start/end" + nl);
         sb.append(LINE + nl);
+        sb.append("... '/every [n] <day|week|month>' - Make a deadline/event repeat" + nl);
+        sb.append(LINE + nl);
         sb.append("'deletetask <idx>' - Delete task by number" + nl);
         sb.append(LINE + nl);
         sb.append("'mark <idx>' - Mark task done" + nl);
@@ -178,7 +237,10 @@ public class Ui {
         sb.append(LINE + nl);
         sb.append("'onDate <yyyy-mm-dd>' - Show items on a specific date" + nl);
         sb.append(LINE + nl);
-        sb.append("'findtask <keywords>' - Search tasks by description" + nl + nl);
+        sb.append("'findtask <keywords>' - Search tasks by description" + nl);
+        sb.append(LINE + nl);
+        sb.append("... '/client <name>' - Assign a new task to a client, or limit"
+                + " listtask/onDate/findtask to one client" + nl + nl);
         sb.append(LINE + nl);
 
         sb.append("Clients:" + nl);
@@ -0,0 +1,83 @@
+package ubersuper;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ubersuper.exceptions.UberExceptions;
+import ubersuper.utils.storage.ClientStorage;
+import ubersuper.utils.storage.TaskStorage;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UberSuperTest {
+
+    @TempDir
+    Path dir;
+
+    private Path taskFile;
+    private UberSuper uberSuper;
+
+    @BeforeEach
+    void setup() throws IOException {
+        taskFile = dir.resolve("tasks.txt");
+        Files.write(taskFile, List.of("T | 0 | read book"), StandardCharsets.UTF_8);
+        Files.write(dir.resolve("clients.txt"), List.of(), StandardCharsets.UTF_8);
+        uberSuper = new UberSuper(new TaskStorage(taskFile), new ClientStorage(dir.resolve("clients.txt")));
+        uberSuper.load().join();
+    }
+
+    @Test
+    void runBatch_thatSucceeds_appliesEveryLineAndWritesThem() throws IOException {
+        String summary = uberSuper.runBatch(List.of("todo a", "todo b", "mark 1"));
+
+        assertTrue(summary.startsWith("Ran 3 commands in one go"), summary);
+        assertEquals(3, uberSuper.getTaskList().size());
+        assertEquals(List.of("T | 1 | read book", "T | 0 | a", "T | 0 | b"),
+                Files.readAllLines(taskFile, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void runBatch_withAnErrorReplyMidway_leavesListAndFileUnchanged() throws IOException {
+        byte[] before = Files.readAllBytes(taskFile);
+
+        UberExceptions e = assertThrows(UberExceptions.class,
+                () -> uberSuper.runBatch(List.of("todo a", "event party /from someday /to never", "todo b")));
+
+        assertTrue(e.getMessage().startsWith("Line 2 (event party /from someday /to never) failed: "),
+                e.getMessage());
+        assertEquals(1, uberSuper.getTaskList().size());
+        assertEquals("read book", uberSuper.getTaskList().get(0).desc());
+        assertArrayEquals(before, Files.readAllBytes(taskFile));
+    }
+
+    @Test
+    void runBatch_withABadIndex_rollsBackTheEarlierLines() throws IOException {
+        byte[] before = Files.readAllBytes(taskFile);
+
+        assertThrows(UberExceptions.class, () -> uberSuper.runBatch(List.of("todo a", "mark 1", "mark 99")));
+
+        assertEquals(1, uberSuper.getTaskList().size());
+        assertFalse(uberSuper.getTaskList().get(0).isDone());
+        assertArrayEquals(before, Files.readAllBytes(taskFile));
+
+        uberSuper.getResponse("todo c");
+        assertEquals(List.of("T | 0 | read book", "T | 0 | c"), Files.readAllLines(taskFile, StandardCharsets.UTF_8),
+                "saves write again after a rollback");
+    }
+
+    @Test
+    void clientOfATask_mustBeAKnownClient() {
+        assertThrows(UberExceptions.class, () -> uberSuper.getResponse("todo call /client Alice"));
+
+        uberSuper.getResponse("addclient Alice /phone 123 /email a@x.com");
+        uberSuper.getResponse("todo call /client  alice");
+
+        assertEquals("Alice", uberSuper.getTaskList().get(1).client());
+    }
+}
@@ -0,0 +1,133 @@
+package ubersuper.reminders;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ubersuper.tasks.Deadline;
+import ubersuper.tasks.Event;
+import ubersuper.tasks.Recurrence;
+import ubersuper.tasks.RecurringDeadline;
+import ubersuper.tasks.Task;
+import ubersuper.tasks.TaskList;
+import ubersuper.tasks.Todo;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReminderSchedulerTest {
+
+    private BlockingQueue<Reminder> reminded;
+    private ReminderScheduler scheduler;
+
+    @BeforeEach
+    void setup() {
+        reminded = new LinkedBlockingQueue<>();
+        scheduler = new ReminderScheduler(reminded::add);
+    }
+
+    @AfterEach
+    void teardown() {
+        scheduler.close();
+    }
+
+    /**
+     * Waits for change-feed deliveries, which arrive on another thread, to settle on {@code expected}.
+     */
+    private static void awaitPending(int expected, IntSupplier pending) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pending.getAsInt() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, pending.getAsInt());
+    }
+
+    @Test
+    void scheduleAll_schedulesOnlyUndoneTasksWithAFutureTime() {
+        LocalDateTime now = LocalDateTime.now();
+        Task done = new Deadline("filed", now.plusDays(1));
+        done.mark();
+        scheduler.scheduleAll(List.of(
+                new Deadline("report", now.plusDays(1)),
+                new Event("party", now.plusHours(2), now.plusHours(5)),
+                new Todo("no time"),
+                done,
+                new Deadline("overdue", now.minusDays(1)),
+                new Event("started", now.minusHours(1), now.plusHours(1))));
+
+        assertEquals(2, scheduler.pending());
+    }
+
+    @Test
+    void scheduleAll_pastDueRecurringTask_schedulesNextOccurrence() {
+        scheduler.scheduleAll(List.of(new RecurringDeadline("rent", LocalDateTime.now().minusDays(3),
+                new Recurrence(ChronoUnit.WEEKS, 1))));
+
+        assertEquals(1, scheduler.pending());
+    }
+
+    @Test
+    void schedule_sameTaskTwice_keepsOneReminder() {
+        Task t = new Deadline("report", LocalDateTime.now().plusDays(1));
+        scheduler.schedule(t);
+        scheduler.schedule(t);
+        assertEquals(1, scheduler.pending());
+
+        scheduler.cancel(t);
+        scheduler.cancel(t);
+        assertEquals(0, scheduler.pending());
+    }
+
+    @Test
+    void changeFeed_addMarkUnmarkDelete_reschedulesAndCancels() throws InterruptedException {
+        TaskList tasks = new TaskList(null);
+        tasks.changes().subscribe(scheduler);
+        Task report = new Deadline("report", LocalDateTime.now().plusDays(1));
+
+        tasks.add(report);
+        tasks.add(new Todo("no time"));
+        awaitPending(1, scheduler::pending);
+
+        tasks.setDone(0, true);
+        awaitPending(0, scheduler::pending);
+
+        tasks.setDone(0, false);
+        awaitPending(1, scheduler::pending);
+
+        tasks.remove(0);
+        awaitPending(0, scheduler::pending);
+    }
+
+    @Test
+    void changeFeed_markRecurringTask_keepsAReminderForTheNextOccurrence() throws InterruptedException {
+        TaskList tasks = new TaskList(null);
+        tasks.changes().subscribe(scheduler);
+        tasks.add(new RecurringDeadline("rent", LocalDateTime.now().plusDays(1), new Recurrence(ChronoUnit.WEEKS, 1)));
+        awaitPending(1, scheduler::pending);
+
+        tasks.setDone(0, true);
+        Thread.sleep(50);
+
+        assertEquals(1, scheduler.pending());
+        assertFalse(tasks.get(0).isDone());
+    }
+
+    @Test
+    void start_dueReminder_isDeliveredAndNotRepeated() throws InterruptedException {
+        Task soon = new Deadline("soon", LocalDateTime.now().plusSeconds(1));
+        scheduler.schedule(soon);
+        scheduler.start();
+
+        Reminder r = reminded.poll(5, TimeUnit.SECONDS);
+        assertNotNull(r);
+        assertSame(soon, r.task());
+        assertTrue(r.message().startsWith("Reminder! This is due now:"));
+        assertEquals(0, scheduler.pending(), "a one-off deadline has no next reminder");
+    }
+}
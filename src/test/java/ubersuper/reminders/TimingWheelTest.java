@@ -0,0 +1,73 @@
+package ubersuper.reminders;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimingWheelTest {
+
+    @Test
+    void advanceTo_firesTimersOnTheirTickAcrossLevels() {
+        TimingWheel<String> wheel = new TimingWheel<>(1_000);
+        wheel.schedule(1_005, "level0");
+        wheel.schedule(1_000 + 200, "level1");
+        wheel.schedule(1_000 + 10_000, "level2");
+        wheel.schedule(1_000 + 300_000, "level3");
+        wheel.schedule(1_000 + 40_000_000L, "overflow");
+        assertEquals(5, wheel.size());
+
+        List<String> fired = new ArrayList<>();
+        wheel.advanceTo(1_004, fired::add);
+        assertTrue(fired.isEmpty());
+        wheel.advanceTo(1_005, fired::add);
+        assertEquals(List.of("level0"), fired);
+
+        wheel.advanceTo(1_199, fired::add);
+        assertEquals(1, fired.size());
+        wheel.advanceTo(1_200, fired::add);
+        assertEquals("level1", fired.get(1));
+
+        wheel.advanceTo(10_999, fired::add);
+        assertEquals(2, fired.size());
+        wheel.advanceTo(11_000, fired::add);
+        assertEquals("level2", fired.get(2));
+
+        wheel.advanceTo(300_999, fired::add);
+        assertEquals(3, fired.size());
+        wheel.advanceTo(301_000, fired::add);
+        assertEquals("level3", fired.get(3));
+
+        wheel.advanceTo(40_000_999L, fired::add);
+        assertEquals(4, fired.size());
+        wheel.advanceTo(40_001_000L, fired::add);
+        assertEquals("overflow", fired.get(4));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancel_pendingTimer_neverFires() {
+        TimingWheel<String> wheel = new TimingWheel<>(0);
+        TimingWheel.Timer<String> keep = wheel.schedule(70, "keep");
+        TimingWheel.Timer<String> drop = wheel.schedule(70, "drop");
+        wheel.cancel(drop);
+        wheel.cancel(drop);
+
+        List<String> fired = new ArrayList<>();
+        wheel.advanceTo(100, fired::add);
+        assertEquals(List.of("keep"), fired);
+        assertEquals(70, keep.expiry());
+    }
+
+    @Test
+    void schedule_inThePast_firesOnNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(500);
+        wheel.schedule(10, "late");
+
+        List<String> fired = new ArrayList<>();
+        wheel.advanceTo(501, fired::add);
+        assertEquals(List.of("late"), fired);
+    }
+}
@@ -0,0 +1,100 @@
+package ubersuper.tasks;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ubersuper.utils.storage.TaskStorage;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecurrenceTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void occurrences_unboundedNearMax_endInsteadOfThrowing() {
+        LocalDateTime first = LocalDateTime.MAX.minusDays(20);
+        Iterator<LocalDateTime> it = new Recurrence(ChronoUnit.DAYS, 1).occurrences(first, first, null);
+
+        int count = 0;
+        LocalDateTime last = null;
+        while (it.hasNext()) {
+            last = it.next();
+            count++;
+        }
+        assertEquals(21, count);
+        assertEquals(first.plusDays(20), last);
+
+        Recurrence monthly = new Recurrence(ChronoUnit.MONTHS, 1);
+        assertFalse(monthly.occurrences(first, LocalDateTime.MAX.minusDays(1), null).hasNext());
+    }
+
+    @Test
+    void recurringTask_pastItsLastOccurrence_hasNoReminderAndStillRenders() {
+        LocalDateTime first = LocalDateTime.MAX.minusDays(3);
+        RecurringDeadline d = new RecurringDeadline("rent", first, new Recurrence(ChronoUnit.WEEKS, 1));
+
+        assertNull(d.reminderTimeAfter(first.plusDays(1)));
+
+        d.mark();
+        assertFalse(d.isDone(), "the last due date is still open");
+        d.mark();
+        assertTrue(d.isDone(), "a series without further due dates is done as a whole");
+        assertTrue(d.toString().endsWith("(every week)"), d.toString());
+    }
+
+    @Test
+    void mark_recurringDeadline_completesOnlyTheNextOccurrence() {
+        LocalDateTime first = LocalDateTime.now().minusDays(3).truncatedTo(ChronoUnit.SECONDS);
+        RecurringDeadline d = new RecurringDeadline("rent", first, new Recurrence(ChronoUnit.WEEKS, 1));
+        LocalDateTime now = LocalDateTime.now();
+        assertEquals(first.plusWeeks(1), d.reminderTimeAfter(now));
+
+        d.mark();
+        assertFalse(d.isDone());
+        assertEquals(first.plusWeeks(2), d.reminderTimeAfter(now));
+        assertTrue(d.toString().startsWith("[D][] rent"), d.toString());
+        String completed = first.plusWeeks(1).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        assertTrue(d.formatString().endsWith(" | every week | done " + completed), d.formatString());
+
+        d.mark();
+        assertEquals(first.plusWeeks(3), d.reminderTimeAfter(now));
+
+        d.unmark();
+        assertEquals(first.plusWeeks(1), d.reminderTimeAfter(now));
+        assertTrue(d.formatString().endsWith(" | every week"), d.formatString());
+    }
+
+    @Test
+    void mark_recurringEvent_completesOnlyTheNextOccurrence() {
+        LocalDateTime start = LocalDateTime.now().plusHours(1).truncatedTo(ChronoUnit.SECONDS);
+        RecurringEvent e = new RecurringEvent("standup", start, start.plusMinutes(15),
+                new Recurrence(ChronoUnit.DAYS, 1));
+
+        e.mark();
+
+        assertFalse(e.isDone());
+        assertEquals(start.plusDays(1), e.reminderTimeAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    void markCommand_recurringTask_savesTheCompletedOccurrence() {
+        Path file = dir.resolve("tasks.txt");
+        TaskList tasks = new TaskList(new TaskStorage(file));
+        LocalDateTime first = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        tasks.add(new RecurringDeadline("rent", first, new Recurrence(ChronoUnit.MONTHS, 1)));
+
+        tasks.mark("mark 1");
+
+        Task reloaded = new TaskStorage(file).load().list().get(0);
+        assertFalse(reloaded.isDone());
+        assertEquals(first.plusMonths(1), reloaded.reminderTimeAfter(LocalDateTime.now()));
+        assertEquals(tasks.get(0).formatString(), reloaded.formatString());
+    }
+}
@@ -1,12 +1,28 @@
 package ubersuper.tasks;
 
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
 import ubersuper.exceptions.UberExceptions;
+import ubersuper.utils.change.ChangeType;
+import ubersuper.utils.change.ListChange;
+import ubersuper.utils.storage.TaskStorage;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -18,6 +34,9 @@ public class TaskListTest {
         }
     }
 
+    @TempDir
+    Path dir;
+
     private TaskList tasks;
     private PrintStream oldOut;
     private ByteArrayOutputStream out;
@@ -49,7 +68,7 @@ public class TaskListTest {
         tasks.add(new Event("E1 meet", LocalDateTime.of(2019, 12, 2, 9, 0),
                 LocalDateTime.of(2019, 12, 2, 10, 0)));
 
-        String output = tasks.list();
+        String output = tasks.list().toString();
 
         assertTrue(output.contains("Here are the tasks in your list:"), output);
         assertTrue(output.contains("1. "), output);
@@ -72,7 +91,7 @@ public class TaskListTest {
                 LocalDateTime.of(2019, 12, 1, 23, 0),
                 LocalDateTime.of(2019, 12, 3, 1, 0)));
 
-        String output = tasks.onDate("ondate 2019-12-02");
+        String output = tasks.onDate("ondate 2019-12-02").toString();
 
         // Should match index in actual list 2, 4, 5
         assertTrue(output.contains("2. "), output);
@@ -83,7 +102,7 @@ public class TaskListTest {
     }
 
     private String runOnDate(String arg) {
-        return tasks.onDate("ondate " + arg);
+        return tasks.onDate("ondate " + arg).toString();
     }
 
     @Test
@@ -122,7 +141,7 @@ public class TaskListTest {
         tasks.add(new Event("meeting", LocalDateTime.of(2019, 12, 2, 9, 0),
                 LocalDateTime.of(2019, 12, 2, 10, 0))); // index 3
 
-        String output = tasks.find("find book");
+        String output = tasks.find("find book").toString();
 
         assertTrue(output.contains("1. [T]"), output);
         assertTrue(output.contains("2. [D]"), output);
@@ -133,8 +152,231 @@ public class TaskListTest {
     void find_withNoMatches_returnsNoMatchesMessage() {
         tasks.add(new Todo("read book"));
 
-        String output = tasks.find("find hello");
+        String output = tasks.find("find hello").toString();
 
         assertTrue(output.contains("(No matches.)"), output);
     }
-}
\ No newline at end of file
+
+    @Test
+    void changes_addAndRemove_publishesTypedEventsWithPositions() throws InterruptedException {
+        BlockingQueue<ListChange<Task>> received = new LinkedBlockingQueue<>();
+        tasks.changes().subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ListChange<Task> change) {
+                received.add(change);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        Todo first = new Todo("first");
+        Todo second = new Todo("second");
+        tasks.add(first);
+        tasks.add(second);
+        tasks.remove(0);
+
+        ListChange<Task> c1 = received.poll(1, TimeUnit.SECONDS);
+        ListChange<Task> c2 = received.poll(1, TimeUnit.SECONDS);
+        ListChange<Task> c3 = received.poll(1, TimeUnit.SECONDS);
+        assertNotNull(c3);
+        assertEquals(ChangeType.ADDED, c1.type());
+        assertEquals(0, c1.index());
+        assertSame(first, c1.item());
+        assertEquals(ChangeType.ADDED, c2.type());
+        assertEquals(1, c2.index());
+        assertEquals(ChangeType.REMOVED, c3.type());
+        assertEquals(0, c3.index());
+        assertSame(first, c3.item());
+    }
+
+    @Test
+    void bulkRemoval_keepsClientPartitionsInStep() {
+        Todo a = new Todo("call");
+        a.setClient("Alice");
+        Todo b = new Todo("email");
+        b.setClient("Bob");
+        tasks.addAll(List.of(a, b));
+
+        tasks.removeIf(t -> t == a);
+
+        assertTrue(tasks.list("listtask /client Alice").toString().contains("(No items.)"));
+        assertTrue(tasks.list("listtask /client Bob").toString().contains("email"));
+    }
+
+    @Test
+    void version_increasesOnEveryMutation() {
+        long v0 = tasks.version();
+        tasks.add(new Todo("a"));
+        long v1 = tasks.version();
+        tasks.setDone(0, true);
+        long v2 = tasks.version();
+        tasks.remove(0);
+        assertTrue(v0 < v1 && v1 < v2 && v2 < tasks.version());
+    }
+
+    @Test
+    void clientQueries_numberTasksByTheirPositionInTheWholeList() {
+        Todo call = new Todo("call");
+        call.setClient("Alice");
+        Todo email = new Todo("email");
+        email.setClient("Bob");
+        Deadline report = new Deadline("report", LocalDateTime.of(2019, 12, 2, 18, 0));
+        report.setClient("Alice");
+        Todo book = new Todo("book room");
+        book.setClient("Alice");
+        tasks.add(call);
+        tasks.add(email);
+        tasks.add(report);
+        tasks.add(1, book);
+
+        String listed = tasks.list("listtask /client Alice").toString();
+        assertTrue(listed.indexOf("1. [T][] call") < listed.indexOf("2. [T][] book room"), listed);
+        assertTrue(listed.indexOf("2. [T][] book room") < listed.indexOf("4. [D][] report"), listed);
+        assertFalse(listed.contains("3. "), listed);
+
+        assertTrue(tasks.find("findtask report /client alice").toString().contains("4. [D][] report"));
+        assertTrue(tasks.onDate("ondate 2019-12-02 /client Alice").toString().contains("4. [D][] report"));
+
+        tasks.remove(0);
+        assertTrue(tasks.list("listtask /client Alice").toString().contains("3. [D][] report"));
+
+        tasks.add(0, new Todo("urgent"));
+        tasks.add(0, new Todo("more urgent"));
+        tasks.remove(1);
+        assertTrue(tasks.list("listtask /client Alice").toString().contains("4. [D][] report"));
+    }
+
+    @Test
+    void clientNames_ignoreCaseAndSpacing_blankIsRejected() {
+        tasks = new TaskList(new TaskStorage(dir.resolve("tasks.txt")));
+
+        tasks.todo("todo call /client  Mary   Jane ");
+        tasks.todo("todo email /client MARY JANE");
+
+        assertEquals("Mary Jane", tasks.get(0).client());
+        String listed = tasks.list("listtask /client mary jane").toString();
+        assertTrue(listed.contains("1. [T][] call") && listed.contains("2. [T][] email"), listed);
+
+        UberExceptions e = assertThrows(UberExceptions.class, () -> tasks.todo("todo call /client   "));
+        assertEquals("Use: /client <name>", e.getMessage());
+        assertEquals(2, tasks.size());
+    }
+
+    @Test
+    void clientNames_withALookup_takeTheStoredNameAndRejectUnknownClients() {
+        tasks = new TaskList(new TaskStorage(dir.resolve("tasks.txt")));
+        tasks.setClientNames(name -> name.equalsIgnoreCase("mary jane") ? "Mary Jane" : null);
+
+        tasks.todo("todo call /client mary   JANE");
+        assertEquals("Mary Jane", tasks.get(0).client());
+
+        UberExceptions e = assertThrows(UberExceptions.class, () -> tasks.todo("todo call /client Mary Jame"));
+        assertTrue(e.getMessage().startsWith("There is no client named 'Mary Jame'."), e.getMessage());
+        assertThrows(UberExceptions.class, () -> tasks.list("listtask /client Mary Jame"));
+        assertEquals(1, tasks.size());
+    }
+
+    @Test
+    void concurrentCommands_keepListPartitionsAndFileInStep() throws Exception {
+        Path file = dir.resolve("tasks.txt");
+        tasks = new TaskList(new TaskStorage(file));
+        int perClient = 50;
+        String[] clients = {"Alice", "Bob", "Carol", "Dave"};
+        ExecutorService pool = Executors.newFixedThreadPool(clients.length * 2);
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (String client : clients) {
+                running.add(pool.submit(() -> {
+                    for (int i = 0; i < perClient; i++) {
+                        tasks.todo("todo job " + i + " /client " + client);
+                    }
+                }));
+                running.add(pool.submit(() -> {
+                    for (int i = 0; i < perClient; i++) {
+                        tasks.list("listtask /client " + client);
+                        tasks.onDate("ondate 2019-12-02 /client " + client);
+                    }
+                }));
+            }
+            for (Future<?> f : running) {
+                f.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(clients.length * perClient, tasks.size());
+        assertEquals(tasks.size(), Files.readAllLines(file, StandardCharsets.UTF_8).size());
+        for (String client : clients) {
+            List<String> expected = new ArrayList<>();
+            for (int i = 0; i < tasks.size(); i++) {
+                if (client.equals(tasks.get(i).client())) {
+                    expected.add((i + 1) + ". " + tasks.get(i));
+                }
+            }
+            List<String> listed = new ArrayList<>();
+            for (String line : tasks.list("listtask /client " + client).toString().split("\n")) {
+                if (line.strip().matches("\\d+\\. .*")) {
+                    listed.add(line.strip());
+                }
+            }
+            assertEquals(expected, listed, client);
+        }
+    }
+
+    @Test
+    void toString_isCachedAndRefreshedOnMarkAndUnmark() {
+        Deadline d = new Deadline("return book", LocalDateTime.of(2019, 10, 15, 0, 0));
+        String first = d.toString();
+        assertSame(first, d.toString());
+
+        d.mark();
+        assertEquals("[D][X] return book (by: Oct 15 2019)", d.toString());
+        d.unmark();
+        assertEquals(first, d.toString());
+    }
+
+    @Test
+    void toString_concurrentWithMarking_onlyShowsWholeLinesAndEndsCurrent() throws Exception {
+        Deadline d = new Deadline("return book", LocalDateTime.of(2019, 10, 15, 0, 0));
+        String undone = "[D][] return book (by: Oct 15 2019)";
+        String done = "[D][X] return book (by: Oct 15 2019)";
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 3; r++) {
+                readers.add(pool.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        String line = d.toString();
+                        assertTrue(line.equals(undone) || line.equals(done), line);
+                    }
+                }));
+            }
+            for (int i = 0; i < 20_000; i++) {
+                if (i % 2 == 0) {
+                    d.mark();
+                } else {
+                    d.unmark();
+                }
+            }
+            for (Future<?> f : readers) {
+                f.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(undone, d.toString());
+        d.mark();
+        assertEquals(done, d.toString());
+    }
+}
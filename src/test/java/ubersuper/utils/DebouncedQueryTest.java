@@ -0,0 +1,152 @@
+package ubersuper.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DebouncedQueryTest {
+    private static final long DELAY = 300;
+
+    /** Deliveries waiting to run, like tasks queued for the UI thread. */
+    private BlockingQueue<Runnable> deliveries;
+    private BlockingQueue<String> results;
+    private BlockingQueue<Exception> errors;
+    private DebouncedQuery<String> query;
+
+    @BeforeEach
+    void setup() {
+        deliveries = new LinkedBlockingQueue<>();
+        results = new LinkedBlockingQueue<>();
+        errors = new LinkedBlockingQueue<>();
+        query = new DebouncedQuery<>(DELAY, deliveries::add, results::add, errors::add);
+    }
+
+    @AfterEach
+    void teardown() {
+        query.close();
+    }
+
+    /**
+     * Waits for the next delivery and runs it, as the UI thread would.
+     */
+    private void deliverNext(long timeoutMillis) throws InterruptedException {
+        Runnable delivery = deliveries.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+        assertNotNull(delivery, "nothing was delivered");
+        delivery.run();
+    }
+
+    @Test
+    void firstQuery_runsWithoutDelay_followUpIsDebounced() throws InterruptedException {
+        long start = System.nanoTime();
+        query.submit(() -> "a");
+        deliverNext(DELAY - 100);
+        assertEquals("a", results.poll());
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(DELAY));
+
+        query.submit(() -> "ab");
+        assertNull(deliveries.poll(DELAY / 3, TimeUnit.MILLISECONDS), "a follow-up should wait out the delay");
+        deliverNext(5_000);
+        assertEquals("ab", results.poll());
+    }
+
+    @Test
+    void submit_supersedesWaitingAndRunningQueries() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        query.submit(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return "slow";
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        query.submit(() -> "dropped");
+        query.submit(() -> "latest");
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS), "the running query should be interrupted");
+        deliverNext(5_000);
+        assertEquals("latest", results.poll());
+        assertNull(deliveries.poll(DELAY + 200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void cancel_stopsRunningQueryAndDeliversNothing() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch stopped = new CountDownLatch(1);
+        query.submit(() -> {
+            started.countDown();
+            try {
+                while (true) {
+                    DebouncedQuery.checkCancelled();
+                    Thread.onSpinWait();
+                }
+            } finally {
+                stopped.countDown();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        query.cancel();
+
+        assertTrue(stopped.await(5, TimeUnit.SECONDS), "checkCancelled should end the scan");
+        assertNull(deliveries.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void resultOvertakenBeforeDelivery_isDropped() throws InterruptedException {
+        query.submit(() -> "stale");
+        Runnable staleDelivery = deliveries.poll(5, TimeUnit.SECONDS);
+        assertNotNull(staleDelivery);
+
+        query.submit(() -> "fresh");
+        staleDelivery.run();
+        assertNull(results.poll(), "a superseded result must not be shown");
+
+        deliverNext(5_000);
+        assertEquals("fresh", results.poll());
+    }
+
+    @Test
+    void offer_deliversPartialResultsBeforeTheFinalOne() throws InterruptedException {
+        query.submit(() -> {
+            query.offer("first half");
+            return "all";
+        });
+
+        deliverNext(5_000);
+        deliverNext(5_000);
+        assertEquals("first half", results.poll());
+        assertEquals("all", results.poll());
+    }
+
+    @Test
+    void failure_isReportedUnlessSuperseded() throws InterruptedException {
+        query.submit(() -> {
+            throw new IllegalStateException("boom");
+        });
+        deliverNext(5_000);
+        assertEquals("boom", errors.poll().getMessage());
+
+        query.submit(() -> {
+            throw new IllegalStateException("stale");
+        });
+        Runnable staleFailure = deliveries.poll(5, TimeUnit.SECONDS);
+        assertNotNull(staleFailure);
+        query.cancel();
+        staleFailure.run();
+        assertNull(errors.poll());
+        assertNull(results.poll());
+    }
+}
@@ -0,0 +1,44 @@
+package ubersuper.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InternPoolTest {
+
+    @Test
+    void intern_returnsOneInstancePerValueAndCountsTheSavings() {
+        InternPool pool = new InternPool();
+        String first = new String("read book");
+
+        assertSame(first, pool.intern(first));
+        assertSame(first, pool.intern(new String("read book")));
+        assertNull(pool.intern(null));
+
+        assertEquals(1, pool.size());
+        assertEquals(1, pool.duplicates());
+        assertEquals(24 + 32, pool.savedBytes(), "String object plus a 16-byte header and 9 Latin-1 bytes, padded");
+
+        pool.resetCounts();
+        assertEquals(0, pool.duplicates());
+        assertEquals(0, pool.savedBytes());
+        assertSame(first, pool.intern(new String("read book")), "resetting the counts keeps the pool");
+    }
+
+    @Test
+    void valuesNoLongerUsed_leaveThePool() throws InterruptedException {
+        InternPool pool = new InternPool();
+        String kept = pool.intern(new String("kept"));
+        for (int i = 0; i < 1000; i++) {
+            pool.intern(new String("deleted " + i));
+        }
+
+        for (int attempt = 0; attempt < 50 && pool.size() > 1; attempt++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertEquals(1, pool.size());
+        assertSame(kept, pool.intern(new String("kept")));
+    }
+}
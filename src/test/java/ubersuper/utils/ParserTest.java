@@ -3,10 +3,13 @@ package ubersuper.utils;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import ubersuper.exceptions.UberExceptions;
+import ubersuper.utils.command.CommandArgs;
+import ubersuper.utils.command.CommandTable;
 import ubersuper.utils.command.CommandType;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -31,6 +34,27 @@ public class ParserTest {
         assertEquals(CommandType.ONDATE, Parser.fromInput("ondate 2019-12-02"));
         assertEquals(CommandType.ONDATE, Parser.fromInput("OnDaTe 2019-12-02"));
     }
+    @Test
+    void fromInput_withSurroundingWhitespaceAndArguments_matchesHead() {
+        assertEquals(CommandType.MARK, Parser.fromInput("  MARK\t3 "));
+        assertEquals(CommandType.UNKNOWN, Parser.fromInput("   "));
+        assertEquals(CommandType.UNKNOWN, Parser.fromInput(null));
+        assertEquals(CommandType.UNKNOWN, Parser.fromInput("mar 3"));
+    }
+
+    @Test
+    void parseIndex_readsNumberAfterCommand() {
+        assertEquals(12, Parser.parseIndex("mark   12 "));
+        assertThrows(UberExceptions.class, () -> Parser.parseIndex("mark"));
+        assertThrows(UberExceptions.class, () -> Parser.parseIndex("mark two"));
+        assertThrows(UberExceptions.class, () -> Parser.parseIndex("mark 1 2"));
+        assertThrows(UberExceptions.class, () -> Parser.parseIndex("mark 1234567890"));
+        assertEquals(7, Parser.parseIndex(new StringBuilder("  delete 7")));
+        assertEquals(CommandArgs.parse("unmark 42 ").index(), Parser.parseIndex("unmark 42 "));
+        String line = "  mark  5 ";
+        assertEquals(5, CommandArgs.index(line, CommandTable.dispatch(line)));
+    }
+
     @Test
     @DisplayName("ISO date only -> midnight")
     void parseDateTime_withIsoDate_returnsStartOfDay() throws UberExceptions {
@@ -78,4 +102,79 @@ public class ParserTest {
         assertThrows(UberExceptions.class, () -> Parser.parseDateTime("2019/12/02")); // unsupported pattern
     }
 
+    @Test
+    @DisplayName("Single-pass parser agrees with the format cascade")
+    void parseDateTime_matchesCascadeOnEdgeCases() {
+        String[] inputs = {
+            "2019-12-02", "2019-12-02T18:00", "2019-12-02 18:00", "2019-12-02T18:00:59",
+            "2/12/2019 1800", "2/12/2019", "2-12-2019 1800", "02-12-2019", " 2/12/2019 ",
+            "31/2/2019", "29/2/2020", "31/4/2019 2359", "2/12/2019 2400", "1/1/0000",
+            "0/1/2019", "32/1/2019", "1/13/2019", "2019-02-29", "2019-02-30 10:00",
+            "2019-12-02T18:00:60", "2019-12-02 18:60", "2019-12-02  18:00", "2019-12-02T18:00:00.5",
+            "002/12/2019", "2/12/20190", "2/12/2019 18:00", "2019-12-2", "10-10-20", "not-a-date"
+        };
+        for (String input : inputs) {
+            assertEquals(outcome(() -> Parser.parseDateTimeCascade(input)),
+                    outcome(() -> Parser.parseDateTime(input)), input);
+        }
+    }
+
+    private static String outcome(Supplier<LocalDateTime> parse) {
+        try {
+            return String.valueOf(parse.get());
+        } catch (UberExceptions e) {
+            return "error: " + e.getMessage();
+        }
+    }
+
+    @Test
+    void parseDateTime_repeatedInput_isServedFromCache() {
+        LruCache<String, LocalDateTime> cache = Parser.dateTimeCache();
+        LocalDateTime first = Parser.parseDateTime("7/3/2031 0930");
+        long hits = cache.hits();
+        assertSame(first, Parser.parseDateTime("  7/3/2031 0930 "));
+        assertEquals(hits + 1, cache.hits());
+    }
+
+    @Test
+    void lruCache_overCapacity_evictsLeastRecentlyUsed() {
+        LruCache<String, Integer> cache = new LruCache<>(2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+        cache.put("c", 3);
+        assertNull(cache.get("b"));
+        assertEquals(1, cache.get("a"));
+        assertEquals(3, cache.get("c"));
+        assertEquals(2, cache.size());
+        assertEquals(3, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    void commandArgs_splitsBodyAndKnownFlags_keepingOtherSlashes() {
+        CommandArgs args = CommandArgs.parse("deadline fix and/or test /By 2/12/2019 1800 /client  Alice ",
+                "by", "client", "every");
+        assertEquals(CommandType.DEADLINE, args.command());
+        assertEquals("fix and/or test", args.body());
+        assertEquals("2/12/2019 1800", args.value("by"));
+        assertEquals("Alice", args.value("client"));
+        assertFalse(args.has("every"));
+        assertArrayEquals(new String[] {"fix", "and/or", "test"}, args.words());
+
+        String line = "  todo read  /client Bob  ";
+        CommandArgs dispatched = CommandArgs.parse(line, CommandTable.dispatch(line), "client");
+        assertEquals(CommandType.TODO, dispatched.command());
+        assertEquals("read", dispatched.body());
+        assertEquals("Bob", dispatched.value("client"));
+    }
+
+    @Test
+    void parseAddClient_missingFlagOrName_throwsUsage() {
+        assertEquals("Amy Tan", Parser.parseAddClient("addclient Amy Tan /email a@b.c /phone 999").getName());
+        assertThrows(UberExceptions.class, () -> Parser.parseAddClient("addclient Amy /email a@b.c"));
+        UberExceptions e = assertThrows(UberExceptions.class,
+                () -> Parser.parseAddClient("addclient /phone 1 /email 2"));
+        assertEquals("Please give your client a name", e.getMessage());
+    }
 }
@@ -0,0 +1,23 @@
+package ubersuper.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StringsTest {
+
+    @Test
+    void containsIgnoreCase_matchesAnywhereRegardlessOfCase() {
+        assertTrue(Strings.containsIgnoreCase("Return Book", "book"));
+        assertTrue(Strings.containsIgnoreCase("Return Book", "RETURN"));
+        assertTrue(Strings.containsIgnoreCase("Return Book", "n b"));
+        assertTrue(Strings.containsIgnoreCase("anything", ""));
+    }
+
+    @Test
+    void containsIgnoreCase_missingOrLongerNeedle_isFalse() {
+        assertFalse(Strings.containsIgnoreCase("Return Book", "books"));
+        assertFalse(Strings.containsIgnoreCase("Book", "Return Book"));
+        assertFalse(Strings.containsIgnoreCase("", "a"));
+    }
+}
@@ -0,0 +1,88 @@
+package ubersuper.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrieTest {
+
+    @Test
+    void complete_ignoresCase_ordersAlphabeticallyAndKeepsSpelling() {
+        Trie trie = new Trie();
+        trie.add("banana");
+        trie.add("apricot");
+        trie.add("Apple");
+        trie.add("app");
+
+        assertEquals(List.of("app", "Apple", "apricot"), trie.complete("ap", 10));
+        assertEquals(List.of("app", "Apple", "apricot"), trie.complete("AP", 10));
+        assertEquals(List.of("Apple"), trie.complete("appl", 10));
+        assertEquals(List.of("app", "Apple", "apricot", "banana"), trie.complete("", 10));
+        assertEquals(List.of("app", "Apple"), trie.complete("", 2));
+        assertEquals(List.of(), trie.complete("c", 10));
+        assertEquals(List.of(), trie.complete("apples", 10));
+    }
+
+    @Test
+    void repeatedWord_isCountedAndKeepsItsFirstSpelling() {
+        Trie trie = new Trie();
+        trie.add("alice");
+        trie.add("Alice");
+
+        assertEquals(2, trie.size());
+        assertEquals(List.of("alice"), trie.complete("A", 10));
+
+        assertTrue(trie.remove("ALICE"));
+        assertEquals(1, trie.size());
+        assertEquals(List.of("alice"), trie.complete("a", 10));
+
+        assertTrue(trie.remove("alice"));
+        assertFalse(trie.remove("alice"));
+        assertEquals(0, trie.size());
+        assertEquals(List.of(), trie.complete("a", 10));
+    }
+
+    @Test
+    void remove_prunesOnlyTheEmptyBranch() {
+        Trie trie = new Trie();
+        trie.add("ab");
+        trie.add("abc");
+        trie.add("abd");
+
+        assertFalse(trie.remove("a"), "a prefix of a word is not a word");
+        assertFalse(trie.remove("abcd"));
+        assertEquals(3, trie.size());
+
+        assertTrue(trie.remove("abc"));
+        assertEquals(List.of("ab", "abd"), trie.complete("a", 10));
+        assertTrue(trie.remove("ab"));
+        assertEquals(List.of("abd"), trie.complete("a", 10));
+        assertTrue(trie.remove("abd"));
+        assertEquals(List.of(), trie.complete("", 10));
+        assertEquals(0, trie.size());
+    }
+
+    @Test
+    void wordAddedAgainAfterRemoval_takesTheNewSpelling() {
+        Trie trie = new Trie();
+        trie.add("Bob");
+        trie.remove("bob");
+        trie.add("BOB");
+
+        assertEquals(List.of("BOB"), trie.complete("b", 10));
+    }
+
+    @Test
+    void blankWords_areIgnored() {
+        Trie trie = new Trie();
+        trie.add(null);
+        trie.add("  ");
+        trie.add("");
+
+        assertEquals(0, trie.size());
+        assertFalse(trie.remove(" "));
+        assertFalse(trie.remove(null));
+    }
+}
@@ -0,0 +1,269 @@
+package ubersuper.utils.change;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PublishingListTest {
+
+    /** Mirrors the list through the hooks, like an index kept in step. */
+    static class Words extends PublishingList<String> {
+        final List<String> index = new ArrayList<>();
+
+        @Override
+        protected void added(int position, String item) {
+            index.add(position, item);
+        }
+
+        @Override
+        protected void removed(int position, String item) {
+            assertEquals(item, index.remove(position));
+        }
+    }
+
+    private Words list;
+    private BlockingQueue<ListChange<String>> received;
+
+    @BeforeEach
+    void setup() {
+        list = new Words();
+        list.add("b");
+        list.add("a");
+        list.add("c");
+        received = new LinkedBlockingQueue<>();
+        list.changes().subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ListChange<String> change) {
+                received.add(change);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+    }
+
+    /**
+     * Waits for the next {@code n} changes and returns them as {@code "TYPE@index:item"}.
+     */
+    private List<String> next(int n) throws InterruptedException {
+        List<String> changes = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            ListChange<String> c = received.poll(1, TimeUnit.SECONDS);
+            assertNotNull(c, "expected " + n + " changes, got " + changes);
+            changes.add(c.type() + "@" + c.index() + ":" + c.item());
+        }
+        return changes;
+    }
+
+    /**
+     * Replays the published changes on a copy of the list as it was, and checks the result.
+     */
+    private void assertReplays(List<String> before, List<String> changes) {
+        List<String> replay = new ArrayList<>(before);
+        for (String c : changes) {
+            String[] parts = c.split("[@:]");
+            int index = Integer.parseInt(parts[1]);
+            if (parts[0].equals("ADDED")) {
+                replay.add(index, parts[2]);
+            } else {
+                assertEquals(parts[2], replay.remove(index));
+            }
+        }
+        assertEquals(list, replay);
+        assertEquals(list, list.index, "hooks out of step");
+    }
+
+    @Test
+    void removeObject_publishesRemoval() throws InterruptedException {
+        long v = list.version();
+        assertTrue(list.remove("a"));
+        assertFalse(list.remove("zzz"));
+        assertEquals(List.of("REMOVED@1:a"), next(1));
+        assertTrue(list.version() > v);
+        assertReplays(List.of("b", "a", "c"), List.of("REMOVED@1:a"));
+    }
+
+    @Test
+    void addAll_publishesEachAddition() throws InterruptedException {
+        list.addAll(List.of("d", "e"));
+        list.addAll(1, List.of("x", "y"));
+        List<String> changes = next(4);
+        assertEquals(List.of("ADDED@3:d", "ADDED@4:e", "ADDED@1:x", "ADDED@2:y"), changes);
+        assertReplays(List.of("b", "a", "c"), changes);
+    }
+
+    @Test
+    void removeIf_publishesEachRemoval() throws InterruptedException {
+        assertTrue(list.removeIf(s -> !s.equals("a")));
+        List<String> changes = next(2);
+        assertEquals(List.of("REMOVED@2:c", "REMOVED@0:b"), changes);
+        assertReplays(List.of("b", "a", "c"), changes);
+    }
+
+    @Test
+    void removeAll_publishesEachRemoval() throws InterruptedException {
+        assertTrue(list.removeAll(List.of("b", "c")));
+        List<String> changes = next(2);
+        assertEquals(List.of("a"), list);
+        assertReplays(List.of("b", "a", "c"), changes);
+    }
+
+    @Test
+    void retainAll_publishesEachRemoval() throws InterruptedException {
+        assertTrue(list.retainAll(List.of("c")));
+        List<String> changes = next(2);
+        assertEquals(List.of("c"), list);
+        assertReplays(List.of("b", "a", "c"), changes);
+    }
+
+    @Test
+    void removeRange_publishesEachRemoval() throws InterruptedException {
+        list.removeRange(0, 2);
+        List<String> changes = next(2);
+        assertEquals(List.of("REMOVED@1:a", "REMOVED@0:b"), changes);
+        assertReplays(List.of("b", "a", "c"), changes);
+    }
+
+    @Test
+    void clear_publishesEachRemoval() throws InterruptedException {
+        list.clear();
+        List<String> changes = next(3);
+        assertTrue(list.isEmpty());
+        assertReplays(List.of("b", "a", "c"), changes);
+    }
+
+    @Test
+    void replaceAll_publishesEachReplacedPosition() throws InterruptedException {
+        list.replaceAll(s -> s.equals("a") ? "A" : s);
+        List<String> changes = next(2);
+        assertEquals(List.of("REMOVED@1:a", "ADDED@1:A"), changes);
+        assertReplays(List.of("b", "a", "c"), changes);
+    }
+
+    @Test
+    void sort_publishesEachMovedPosition() throws InterruptedException {
+        list.sort(Comparator.naturalOrder());
+        assertEquals(List.of("a", "b", "c"), list);
+        List<String> changes = next(4);
+        assertEquals(List.of("REMOVED@0:b", "ADDED@0:a", "REMOVED@1:a", "ADDED@1:b"), changes);
+        assertReplays(List.of("b", "a", "c"), changes);
+    }
+
+    @Test
+    void iterator_mutatesThroughPublishingMethods() throws InterruptedException {
+        ListIterator<String> it = list.listIterator();
+        it.next();
+        it.remove();
+        it.next();
+        it.set("A");
+        it.add("z");
+        List<String> changes = next(4);
+        assertEquals(List.of("REMOVED@0:b", "REMOVED@0:a", "ADDED@0:A", "ADDED@1:z"), changes);
+        assertReplays(List.of("b", "a", "c"), changes);
+    }
+
+    @Test
+    void subList_isReadOnly() {
+        List<String> view = list.subList(0, 2);
+        assertEquals(List.of("b", "a"), view);
+        assertThrows(UnsupportedOperationException.class, view::clear);
+        assertThrows(UnsupportedOperationException.class, () -> view.removeIf(s -> true));
+        assertEquals(3, list.size());
+    }
+
+    @Test
+    void read_waitsForARunningWrite() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread writer = new Thread(() -> list.write(() -> {
+            list.add("d");
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            list.add("e");
+            return null;
+        }));
+        writer.start();
+        writing.await();
+
+        FutureTask<Integer> size = new FutureTask<>(() -> list.read(list::size));
+        new Thread(size).start();
+        assertThrows(TimeoutException.class, () -> size.get(100, TimeUnit.MILLISECONDS));
+
+        release.countDown();
+        assertEquals(5, size.get(5, TimeUnit.SECONDS));
+        writer.join();
+    }
+
+    @Test
+    void stalledSubscriber_holdsUpTheWriterButNotReaders() throws Exception {
+        Words stalled = new Words();
+        List<Flow.Subscription> subscriptions = new ArrayList<>();
+        CountDownLatch subscribed = new CountDownLatch(1);
+        stalled.changes().subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscriptions.add(subscription);
+                subscribed.countDown();
+            }
+
+            @Override
+            public void onNext(ListChange<String> change) {
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        subscribed.await();
+        int count = Flow.defaultBufferSize() * 4;
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < count; i++) {
+                stalled.add("w" + i);
+            }
+        });
+        writer.start();
+        while (writer.getState() != Thread.State.WAITING && writer.isAlive()) {
+            Thread.sleep(5);
+        }
+        assertTrue(writer.isAlive(), "the writer should wait for the subscriber to catch up");
+
+        FutureTask<Integer> size = new FutureTask<>(() -> stalled.read(stalled::size));
+        new Thread(size).start();
+        assertTrue(size.get(5, TimeUnit.SECONDS) < count);
+
+        subscriptions.get(0).request(Long.MAX_VALUE);
+        writer.join(5000);
+        assertEquals(count, stalled.size());
+    }
+}
@@ -0,0 +1,141 @@
+package ubersuper.utils.command;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ubersuper.clients.Client;
+import ubersuper.clients.ClientList;
+import ubersuper.tasks.TaskList;
+import ubersuper.tasks.Todo;
+import ubersuper.utils.storage.ClientStorage;
+import ubersuper.utils.storage.TaskStorage;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompletionsTest {
+
+    @TempDir
+    Path dir;
+
+    private TaskList tasks;
+    private ClientList clients;
+    /** Client list changes waiting to be applied, as the UI thread would queue them. */
+    private final BlockingQueue<Runnable> changes = new LinkedBlockingQueue<>();
+    private final Completions completions = new Completions();
+
+    @BeforeEach
+    void setup() {
+        tasks = new TaskList(new TaskStorage(dir.resolve("tasks.txt")));
+        clients = new ClientList(new ClientStorage(dir.resolve("clients.txt")));
+        for (int i = 1; i <= 25; i++) {
+            tasks.add(new Todo("task " + i));
+        }
+        clients.add(new Client("Alice", "1", "alice@example.com"));
+        clients.add(new Client("alan", "2", "alan@example.com"));
+        clients.add(new Client("Bob", "3", "bob@example.com"));
+        completions.bind(tasks, clients, changes::add);
+    }
+
+    private List<String> texts(String input, int limit) {
+        List<String> texts = new ArrayList<>();
+        for (Completions.Suggestion s : completions.complete(input, limit)) {
+            texts.add(s.text());
+        }
+        return texts;
+    }
+
+    private void applyChanges(int count) throws InterruptedException {
+        for (int i = 0; i < count; i++) {
+            Runnable change = changes.poll(5, TimeUnit.SECONDS);
+            assertNotNull(change, "the client list change was not published");
+            change.run();
+        }
+    }
+
+    @Test
+    void firstWord_completesKeywordsWithTheirUsage() {
+        List<Completions.Suggestion> suggestions = completions.complete("  LI", 10);
+
+        assertEquals(2, suggestions.size());
+        assertEquals("  listclient ", suggestions.get(0).text());
+        assertEquals("listclient", suggestions.get(0).label());
+        assertEquals("  listtask ", suggestions.get(1).text());
+        assertEquals(List.of("deadline "), texts("dead", 10));
+        assertEquals(List.of(), texts("zzz", 10));
+    }
+
+    @Test
+    void slashWord_completesTheFlagsOfThatCommand() {
+        List<Completions.Suggestion> suggestions = completions.complete("deadline report /", 10);
+
+        assertEquals(List.of("deadline report /by ", "deadline report /client ", "deadline report /every "),
+                texts("deadline report /", 10));
+        assertEquals("/by <time>", suggestions.get(0).label());
+        assertEquals(List.of("addclient Carol /phone "), texts("addclient Carol /p", 10));
+        assertEquals(List.of(), texts("mark /", 10), "mark takes no flags");
+    }
+
+    @Test
+    void afterClientFlagOrFindclient_completesClientNames() {
+        assertEquals(List.of("todo call /client alan", "todo call /client Alice"), texts("todo call /client al", 10));
+        assertEquals(List.of("findclient Bob"), texts("findclient b", 10));
+        assertEquals(List.of("deadline call /client Alice /by "), texts("deadline call /client Alice /b", 10),
+                "a later flag is completed as a flag");
+        assertEquals(List.of(), texts("addclient x /client a", 10), "addclient has no /client flag");
+        assertEquals(List.of(), texts("todo a\ntodo b /client a", 10), "several lines are not completed");
+    }
+
+    @Test
+    void clientNames_followTheClientList() throws InterruptedException {
+        clients.add(new Client("Albert", "4", "albert@example.com"));
+        clients.add(new Client("alice", "5", "alice2@example.com"));
+        applyChanges(2);
+        assertEquals(List.of("findclient alan", "findclient Albert", "findclient Alice"), texts("findclient al", 10));
+
+        clients.remove(0);
+        applyChanges(1);
+        assertEquals(List.of("findclient Alice"), texts("findclient ali", 10), "one Alice is left");
+
+        clients.remove(clients.size() - 1);
+        applyChanges(1);
+        assertEquals(List.of(), texts("findclient ali", 10));
+    }
+
+    @Test
+    void indexCommands_completeIndicesWithTheTypedPrefix() {
+        assertEquals(List.of("mark 1", "mark 10", "mark 11", "mark 12", "mark 13", "mark 14", "mark 15",
+                "mark 16", "mark 17", "mark 18", "mark 19"), texts("mark 1", 20));
+        assertEquals(List.of("unmark 2", "unmark 20", "unmark 21", "unmark 22", "unmark 23", "unmark 24",
+                "unmark 25"), texts("unmark 2", 20));
+        assertEquals(List.of("deletetask 1", "deletetask 10", "deletetask 11"), texts("deletetask 1", 3));
+        assertEquals(List.of("mark 1", "mark 2", "mark 3"), texts("mark ", 3));
+        assertEquals(List.of("mark 25"), texts("mark 25", 20));
+        assertEquals(List.of(), texts("mark 26", 20));
+        assertEquals(List.of(), texts("mark 0", 20));
+        assertEquals(List.of(), texts("mark 1x", 20));
+        assertEquals(List.of(), texts("mark 12345678901", 20));
+    }
+
+    @Test
+    void indexSuggestions_areLabelledWithTheirItem() {
+        assertEquals("3: [T][] task 3", completions.complete("mark 3", 1).get(0).label());
+        List<Completions.Suggestion> clientIndices = completions.complete("deleteclient ", 10);
+        assertEquals(3, clientIndices.size());
+        assertEquals("deleteclient 2", clientIndices.get(1).text());
+        assertEquals("2: alan", clientIndices.get(1).label());
+    }
+
+    @Test
+    void unknownCommandOrBlankInput_hasNoSuggestions() {
+        assertEquals(List.of(), texts("frobnicate 1", 10));
+        assertEquals(List.of(), texts("   ", 10));
+        assertEquals(List.of(), texts(null, 10));
+    }
+}
@@ -0,0 +1,129 @@
+package ubersuper.utils.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ubersuper.utils.ChatMessage;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChatLogTest {
+    private static final LocalDateTime TIME = LocalDateTime.of(2026, 10, 19, 9, 30, 15);
+
+    @TempDir
+    Path dir;
+
+    private static ChatMessage user(String text) {
+        return new ChatMessage(ChatMessage.Sender.USER, text, TIME);
+    }
+
+    private static List<String> texts(List<ChatMessage> messages) {
+        List<String> texts = new ArrayList<>();
+        for (ChatMessage m : messages) {
+            texts.add(m.text());
+        }
+        return texts;
+    }
+
+    @Test
+    void append_specialCharacters_readBackUnchanged() throws IOException {
+        List<String> written = List.of("back\\slash", "two\nlines", "carriage\rreturn", "a | pipe | or two",
+                "ends with \\", "\\n is not a newline", "");
+        try (ChatLog log = ChatLog.open(dir)) {
+            for (String text : written) {
+                log.append(user(text));
+            }
+            log.append(new ChatMessage(ChatMessage.Sender.ERROR, "failed", TIME.plusMinutes(1)));
+
+            List<ChatMessage> read = log.before(log.end(), 100).join().messages();
+
+            assertEquals(written, texts(read.subList(0, written.size())));
+            ChatMessage last = read.get(read.size() - 1);
+            assertEquals(ChatMessage.Sender.ERROR, last.sender());
+            assertEquals(TIME.plusMinutes(1), last.time());
+            assertEquals(ChatMessage.Sender.USER, read.get(0).sender());
+            assertEquals(TIME, read.get(0).time());
+        }
+    }
+
+    @Test
+    void beforeAndAfter_acrossRolledFiles_pageThroughEveryMessageInOrder() throws IOException {
+        String padding = "x".repeat(1000);
+        List<String> written = new ArrayList<>();
+        try (ChatLog log = ChatLog.open(dir)) {
+            for (int i = 0; i < 1500; i++) {
+                written.add(i + padding);
+                log.append(user(written.get(i)));
+            }
+
+            assertTrue(Files.exists(dir.resolve("chat-2.log")), "1.5 MB should roll into a second file");
+            List<String> backward = new ArrayList<>();
+            ChatLog.Page page = log.before(log.end(), 64).join();
+            long start = page.start();
+            while (!page.messages().isEmpty()) {
+                List<String> older = texts(page.messages());
+                Collections.reverse(older);
+                backward.addAll(older);
+                start = page.start();
+                page = log.before(start, 64).join();
+            }
+            Collections.reverse(backward);
+            assertEquals(written, backward);
+
+            List<String> forward = new ArrayList<>();
+            page = log.after(start, 64).join();
+            while (!page.messages().isEmpty()) {
+                forward.addAll(texts(page.messages()));
+                page = log.after(page.end(), 64).join();
+            }
+            assertEquals(written, forward);
+            assertEquals(log.end(), page.end());
+        }
+    }
+
+    @Test
+    void open_afterALineCutShort_endsItSoTheNextMessageReadsBack() throws IOException {
+        try (ChatLog log = ChatLog.open(dir)) {
+            log.append(user("before the crash"));
+        }
+        Files.write(dir.resolve("chat-1.log"), "B | 2026-10-1".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        try (ChatLog log = ChatLog.open(dir)) {
+            log.append(user("after the crash"));
+
+            assertEquals(List.of("before the crash", "after the crash"),
+                    texts(log.before(log.end(), 10).join().messages()));
+        }
+    }
+
+    @Test
+    void reopen_appendsAfterTheNewestMessage() throws IOException {
+        long end;
+        try (ChatLog log = ChatLog.open(dir)) {
+            log.append(user("first"));
+            log.append(user("second"));
+            end = log.end();
+        }
+
+        try (ChatLog log = ChatLog.open(dir)) {
+            assertEquals(end, log.end());
+            ChatMessage third = log.append(user("third"));
+
+            assertEquals(end, third.position());
+            List<ChatMessage> read = log.before(log.end(), 10).join().messages();
+            assertEquals(List.of("first", "second", "third"), texts(read));
+            assertEquals(end, read.get(2).position());
+            assertEquals(List.of("third"), texts(log.after(end, 10).join().messages()));
+        }
+    }
+}
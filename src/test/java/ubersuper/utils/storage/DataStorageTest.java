@@ -0,0 +1,150 @@
+package ubersuper.utils.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ubersuper.clients.Client;
+import ubersuper.clients.ClientList;
+import ubersuper.exceptions.UberExceptions;
+import ubersuper.tasks.Task;
+import ubersuper.tasks.TaskList;
+import ubersuper.tasks.Todo;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataStorageTest {
+
+    @TempDir
+    Path dir;
+
+    /** Counts the saves that reach the file. */
+    static class CountingStorage extends TaskStorage {
+        int writes;
+
+        CountingStorage(Path file) {
+            super(file);
+        }
+
+        @Override
+        public synchronized void save(TaskList tasks) {
+            if (!deferSave(tasks)) {
+                writes++;
+            }
+            super.save(tasks);
+        }
+    }
+
+    private static List<String> formatted(TaskList tasks) {
+        return tasks.stream().map(Task::formatString).toList();
+    }
+
+    @Test
+    void reload_ownSave_changesNothing() throws IOException {
+        TaskStorage storage = new TaskStorage(dir.resolve("tasks.txt"));
+        TaskList tasks = storage.load().list();
+        tasks.add(new Todo("read book"));
+        storage.save(tasks);
+
+        assertEquals(0, storage.reload(tasks));
+        assertEquals(1, tasks.size());
+    }
+
+    @Test
+    void reload_externalEdit_patchesOnlyChangedRecords() throws IOException {
+        Path file = dir.resolve("tasks.txt");
+        Files.write(file, List.of("T | 0 | read book", "T | 0 | write essay"), StandardCharsets.UTF_8);
+        TaskStorage storage = new TaskStorage(file);
+        TaskList tasks = storage.load().list();
+        Object first = tasks.get(0);
+        Object second = tasks.get(1);
+
+        Files.write(file, List.of("T | 0 | read book", "T | 1 | write essay", "T | 0 | call mum"),
+                StandardCharsets.UTF_8);
+
+        assertEquals(2, storage.reload(tasks));
+        assertEquals(3, tasks.size());
+        assertSame(first, tasks.get(0));
+        assertSame(second, tasks.get(1), "a done-flag edit should mark the task in place");
+        assertTrue(tasks.get(1).isDone());
+        assertEquals("call mum", tasks.get(2).desc());
+        assertEquals(0, storage.reload(tasks));
+    }
+
+    @Test
+    void reload_editKeepingLineHash_isApplied() throws IOException {
+        Path file = dir.resolve("clients.txt");
+        Files.write(file, List.of("Aa | 1 | a@x"), StandardCharsets.UTF_8);
+        ClientStorage storage = new ClientStorage(file);
+        ClientList clients = storage.load().list();
+
+        // "Aa" and "BB" share a String hash code, and so do the two files
+        Files.write(file, List.of("BB | 1 | a@x"), StandardCharsets.UTF_8);
+
+        assertEquals(1, storage.reload(clients));
+        assertEquals("BB", clients.get(0).getName());
+    }
+
+    @Test
+    void reload_missingFile_changesNothing() throws IOException {
+        ClientStorage storage = new ClientStorage(dir.resolve("none.txt"));
+        ClientList clients = new ClientList(storage);
+        clients.add(new Client("Alice", "1", "a@x"));
+
+        assertEquals(0, storage.reload(clients));
+        assertEquals(1, clients.size());
+    }
+
+    @Test
+    void batch_thatSucceeds_writesOnceAtCommit() throws IOException {
+        Path file = dir.resolve("tasks.txt");
+        CountingStorage storage = new CountingStorage(file);
+        TaskList tasks = new TaskList(storage);
+
+        storage.beginBatch(tasks);
+        tasks.todo("todo read book");
+        tasks.todo("todo write essay");
+        tasks.mark("mark 1");
+        assertEquals(0, storage.writes);
+        assertFalse(Files.exists(file));
+
+        storage.commitBatch();
+        assertEquals(1, storage.writes);
+        assertEquals(List.of("T | 1 | read book", "T | 0 | write essay"), Files.readAllLines(file));
+
+        storage.beginBatch(tasks);
+        tasks.list();
+        storage.commitBatch();
+        assertEquals(1, storage.writes, "a batch without changes writes nothing");
+    }
+
+    @Test
+    void batch_thatFails_restoresListAndWritesNothing() throws IOException {
+        Path file = dir.resolve("tasks.txt");
+        CountingStorage storage = new CountingStorage(file);
+        TaskList tasks = new TaskList(storage);
+        tasks.todo("todo read book");
+        tasks.todo("todo write essay");
+        byte[] saved = Files.readAllBytes(file);
+        List<String> before = formatted(tasks);
+        storage.writes = 0;
+
+        storage.beginBatch(tasks);
+        tasks.mark("mark 2");
+        tasks.delete("deletetask 1");
+        tasks.todo("todo call mum");
+        assertThrows(UberExceptions.class, () -> tasks.mark("mark 9"));
+        assertTrue(storage.rollbackBatch(tasks) > 0);
+
+        assertEquals(before, formatted(tasks));
+        assertEquals(0, storage.writes);
+        assertArrayEquals(saved, Files.readAllBytes(file));
+
+        tasks.todo("todo after");
+        assertEquals(1, storage.writes, "saves write again once the batch is over");
+    }
+}
@@ -0,0 +1,43 @@
+package ubersuper.utils.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ubersuper.tasks.TaskList;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataWatcherTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void externalEdit_isAppliedAndReported_ownSaveIsNot() throws IOException, InterruptedException {
+        Path file = dir.resolve("tasks.txt");
+        Files.write(file, List.of("T | 0 | read book"), StandardCharsets.UTF_8);
+        TaskStorage storage = new TaskStorage(file);
+        TaskList tasks = storage.load().list();
+        BlockingQueue<String> reloads = new LinkedBlockingQueue<>();
+
+        try (DataWatcher watcher = new DataWatcher(Runnable::run,
+                (name, changed) -> reloads.add(name + ":" + changed))) {
+            watcher.watch(storage, tasks);
+
+            storage.save(tasks);
+            Files.write(file, List.of("T | 0 | read book", "T | 0 | call mum"), StandardCharsets.UTF_8);
+
+            assertEquals("tasks.txt:1", reloads.poll(10, TimeUnit.SECONDS));
+            assertEquals(2, tasks.size());
+            assertNull(reloads.poll(300, TimeUnit.MILLISECONDS), "the same content must not reload twice");
+        }
+    }
+}
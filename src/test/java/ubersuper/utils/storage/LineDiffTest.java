@@ -0,0 +1,73 @@
+package ubersuper.utils.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LineDiffTest {
+
+    private static int apply(List<String> current, List<String> lines) {
+        return LineDiff.apply(current, lines, Function.identity(), line -> line.startsWith("!") ? null : line, null);
+    }
+
+    @Test
+    void apply_changedMiddleLine_replacesOnlyThatRecord() {
+        List<String> current = new ArrayList<>(List.of("a", "b", "c"));
+        String a = current.get(0);
+
+        assertEquals(1, apply(current, List.of("a", "x", "c")));
+
+        assertEquals(List.of("a", "x", "c"), current);
+        assertSame(a, current.get(0));
+    }
+
+    @Test
+    void apply_lineWithSameHash_isStillReplaced() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        List<String> current = new ArrayList<>(List.of("x", "Aa", "y"));
+
+        assertEquals(1, apply(current, List.of("x", "BB", "y")));
+
+        assertEquals(List.of("x", "BB", "y"), current);
+    }
+
+    @Test
+    void apply_insertionsAndRemovals_keepCommonPrefixAndSuffix() {
+        List<String> current = new ArrayList<>(List.of("a", "b", "c", "d"));
+
+        assertEquals(3, apply(current, List.of("a", "x", "y", "z", "d")));
+        assertEquals(List.of("a", "x", "y", "z", "d"), current);
+
+        assertEquals(3, apply(current, List.of("a", "d")));
+        assertEquals(List.of("a", "d"), current);
+    }
+
+    @Test
+    void apply_blankAndMalformedLines_areDropped() {
+        List<String> current = new ArrayList<>(List.of("a"));
+
+        apply(current, List.of("  a  ", "", "!bad", "b"));
+
+        assertEquals(List.of("a", "b"), current);
+    }
+
+    @Test
+    void apply_inPlaceUpdate_isPreferredOverReplacement() {
+        List<StringBuilder> current = new ArrayList<>(List.of(new StringBuilder("a 0")));
+        StringBuilder original = current.get(0);
+
+        int changed = LineDiff.apply(current, List.of("a 1"), StringBuilder::toString, StringBuilder::new,
+                (index, cur, parsed) -> {
+                    cur.replace(0, cur.length(), parsed.toString());
+                    return true;
+                });
+
+        assertEquals(1, changed);
+        assertSame(original, current.get(0));
+        assertEquals("a 1", original.toString());
+    }
+}
@@ -0,0 +1,73 @@
+package ubersuper.utils.ui;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrameTimesTest {
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void noFrames_reportZero() {
+        FrameTimes times = new FrameTimes();
+        times.record(5 * MS);
+
+        assertEquals(0, times.count(), "one frame has no interval yet");
+        assertEquals(0.0, times.averageMillis());
+        assertEquals(0.0, times.worstMillis());
+    }
+
+    @Test
+    void record_keepsIntervalsBetweenFrames() {
+        FrameTimes times = new FrameTimes();
+        times.record(0);
+        times.record(16 * MS);
+        times.record(32 * MS);
+        times.record(72 * MS);
+
+        assertEquals(3, times.count());
+        assertEquals(24.0, times.averageMillis(), 1e-9);
+        assertEquals(40.0, times.worstMillis(), 1e-9);
+        assertEquals("3 frames, avg 24.0 ms, worst 40.0 ms", times.toString());
+    }
+
+    @Test
+    void pause_doesNotCountTheGapUntilTheNextFrame() {
+        FrameTimes times = new FrameTimes();
+        times.record(0);
+        times.record(10 * MS);
+        times.pause();
+        times.record(5_000 * MS);
+        times.record(5_020 * MS);
+
+        assertEquals(2, times.count());
+        assertEquals(20.0, times.worstMillis(), 1e-9);
+    }
+
+    @Test
+    void negativeTimestamps_areRecorded() {
+        FrameTimes times = new FrameTimes();
+        times.record(-40 * MS);
+        times.record(-24 * MS);
+
+        assertEquals(1, times.count());
+        assertEquals(16.0, times.averageMillis(), 1e-9);
+    }
+
+    @Test
+    void manyFrames_keepOnlyTheNewestIntervals() {
+        FrameTimes times = new FrameTimes();
+        long now = 0;
+        times.record(now);
+        now += 100 * MS;
+        times.record(now);
+        for (int i = 0; i < 1000; i++) {
+            now += 16 * MS;
+            times.record(now);
+        }
+
+        assertEquals(512, times.count());
+        assertEquals(16.0, times.worstMillis(), 1e-9, "the old 100 ms frame has been overwritten");
+        assertEquals(16.0, times.averageMillis(), 1e-9);
+    }
+}
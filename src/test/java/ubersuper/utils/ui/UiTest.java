@@ -0,0 +1,98 @@
+package ubersuper.utils.ui;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ubersuper.clients.ClientList;
+import ubersuper.exceptions.UberExceptions;
+import ubersuper.tasks.TaskList;
+import ubersuper.tasks.Todo;
+import ubersuper.utils.response.Response;
+import ubersuper.utils.storage.ClientStorage;
+import ubersuper.utils.storage.TaskStorage;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UiTest {
+
+    @TempDir
+    Path dir;
+
+    private TaskList tasks;
+    private ClientList clients;
+    private Ui ui;
+
+    @BeforeEach
+    void setup() {
+        tasks = new TaskList(new TaskStorage(dir.resolve("tasks.txt")));
+        clients = new ClientList(new ClientStorage(dir.resolve("clients.txt")));
+        ui = new Ui(tasks, clients);
+        tasks.add(new Todo("read book"));
+    }
+
+    @Test
+    void repeatedListtask_returnsCachedReply() {
+        Response first = ui.echo("listtask");
+
+        assertSame(first, ui.echo("listtask"));
+        assertSame(first, ui.echo("  LISTTASK "));
+        assertNotSame(first, ui.echo("listtask /client Alice"));
+    }
+
+    @Test
+    void mutation_invalidatesCachedReply() {
+        Response before = ui.echo("listtask");
+
+        ui.echo("todo write essay");
+        Response afterAdd = ui.echo("listtask");
+        assertNotSame(before, afterAdd);
+        assertTrue(afterAdd.toString().contains("2. [T][] write essay"), afterAdd.toString());
+
+        ui.echo("mark 1");
+        Response afterMark = ui.echo("listtask");
+        assertNotSame(afterAdd, afterMark);
+        assertTrue(afterMark.toString().contains("1. [T][X] read book"), afterMark.toString());
+
+        tasks.remove(1);
+        assertFalse(ui.echo("listtask").toString().contains("write essay"));
+    }
+
+    @Test
+    void clientMutation_leavesTaskRepliesCached() {
+        Response tasksBefore = ui.echo("listtask");
+        Response clientsBefore = ui.echo("listclient");
+
+        ui.echo("addclient Alice /phone 123 /email a@x.com");
+
+        assertSame(tasksBefore, ui.echo("listtask"));
+        assertNotSame(clientsBefore, ui.echo("listclient"));
+    }
+
+    @Test
+    void variantsOfOneQuery_shareACachedReply() {
+        ui.echo("todo read the Book");
+        ui.echo("addclient Bob /phone 1 /email b@x.com");
+
+        Response find = ui.echo("findtask book");
+        assertSame(find, ui.echo("findtask  Book "));
+        assertSame(find, ui.echo("FINDTASK\tBOOK"));
+        assertNotSame(find, ui.echo("findtask book read"));
+
+        Response findClient = ui.echo("findclient Bob");
+        assertSame(findClient, ui.echo("findclient   bob"));
+
+        Response onDate = ui.echo("ondate 2026-10-19");
+        assertSame(onDate, ui.echo("ondate    2026-10-19  "));
+    }
+
+    @Test
+    void failedQuery_isNotCached() {
+        assertThrows(UberExceptions.class, () -> ui.echo("findtask essay"));
+
+        ui.echo("todo write essay");
+
+        assertTrue(ui.echo("findtask essay").toString().contains("write essay"));
+    }
+}